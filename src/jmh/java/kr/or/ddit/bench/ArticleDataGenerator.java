@@ -0,0 +1,76 @@
+package kr.or.ddit.bench;
+
+import kr.or.ddit.dto.ArticleBatchResult;
+import kr.or.ddit.dto.ArticleForm;
+import kr.or.ddit.entity.Article;
+import kr.or.ddit.service.ArticleService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// 벤치마크용 글 데이터 생성기
+// data.sql처럼 한글 제목/내용을 만들고, 같은 seed면 항상 같은 데이터가 나옴
+public class ArticleDataGenerator {
+
+    private static final String[] WORDS = {
+            "개똥이의", "여행", "즐거운", "점심", "메뉴", "스프링", "부트", "게시판", "오늘", "날씨",
+            "맛있는", "저녁", "산책", "공원", "커피", "주말", "영화", "더", "글로리", "spring", "jpa", "h2"
+    };
+
+    // DB에 등록할 때 한 번에 보내는 건수
+    private static final int SEED_CHUNK_SIZE = 1000;
+
+    private final Random random;
+
+    public ArticleDataGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public ArticleForm form() {
+        return new ArticleForm(null, sentence(3, 6), sentence(20, 80));
+    }
+
+    // id가 채워진 엔티티 목록(직렬화 벤치마크용, DB에 저장하지 않음)
+    public List<Article> articles(int count) {
+        List<Article> articles = new ArrayList<>(count);
+        for(int i = 0; i < count; i++){
+            articles.add(new Article((long) i + 1, sentence(3, 6), sentence(20, 80)));
+        }
+        return articles;
+    }
+
+    // ArticleService.createAll로 rows건을 등록하고 등록된 글 id들을 반환
+    public long[] seed(ArticleService articleService, int rows) {
+        long started = System.nanoTime();
+        long[] ids = new long[rows];
+        int seeded = 0;
+
+        while(seeded < rows){
+            int chunk = Math.min(SEED_CHUNK_SIZE, rows - seeded);
+            List<ArticleForm> forms = new ArrayList<>(chunk);
+            for(int i = 0; i < chunk; i++){
+                forms.add(form());
+            }
+            for(ArticleBatchResult result : articleService.createAll(forms)){
+                ids[seeded++] = result.getId();
+            }
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("seeded %d articles in %.1fs (%.0f rows/s)%n", rows, seconds, rows / seconds);
+        return ids;
+    }
+
+    private String sentence(int minWords, int maxWords) {
+        int words = minWords + this.random.nextInt(maxWords - minWords + 1);
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < words; i++){
+            if(i > 0){
+                sb.append(' ');
+            }
+            sb.append(WORDS[this.random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
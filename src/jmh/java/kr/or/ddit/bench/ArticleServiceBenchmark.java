@@ -0,0 +1,86 @@
+package kr.or.ddit.bench;
+
+import kr.or.ddit.dto.ArticleForm;
+import kr.or.ddit.dto.ArticlePage;
+import kr.or.ddit.entity.Article;
+import kr.or.ddit.service.ArticleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// ArticleService의 목록/상세/등록/수정/삭제를 H2 메모리 DB에 rows건을 넣어 두고 측정
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ArticleServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private ArticleService articleService;
+
+    private ArticleDataGenerator generator;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.context = BenchmarkContext.start("service" + this.rows);
+        this.articleService = this.context.getBean(ArticleService.class);
+        this.generator = new ArticleDataGenerator(42);
+        this.ids = this.generator.seed(this.articleService, this.rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+    }
+
+    // 커서 페이지 한 장(20건)
+    @Benchmark
+    public ArticlePage indexPage() {
+        return this.articleService.index(randomId(), ArticleService.DEFAULT_PAGE_SIZE);
+    }
+
+    // 전체 목록(findAll) : 행 수에 비례하는 비용 비교용
+    @Benchmark
+    public List<Article> indexAll() {
+        return this.articleService.index();
+    }
+
+    @Benchmark
+    public Article show() {
+        return this.articleService.show(randomId());
+    }
+
+    @Benchmark
+    public Article create() {
+        return this.articleService.create(this.generator.form().toEntity());
+    }
+
+    @Benchmark
+    public Article update() {
+        ArticleForm form = this.generator.form();
+        form.setId(randomId());
+        return this.articleService.update(form);
+    }
+
+    // 삭제만 반복하면 지울 글이 없어지므로 등록 후 바로 삭제
+    @Benchmark
+    public boolean createThenDelete() {
+        Article article = this.articleService.create(this.generator.form().toEntity());
+        return this.articleService.delete(article.getId());
+    }
+
+    private long randomId() {
+        return this.ids[ThreadLocalRandom.current().nextInt(this.ids.length)];
+    }
+}
@@ -0,0 +1,49 @@
+package kr.or.ddit.bench;
+
+import kr.or.ddit.DditApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 벤치마크용 스프링 컨텍스트(웹 서버 없이 서비스/리파지터리만)
+// application.properties의 SQL 로그는 측정값을 망가뜨리므로 끄고, 벤치마크마다 별도 H2 메모리 DB(또는 파일 DB)를 씀
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {}
+
+    // extraArgs : "--key=value" 형식으로 추가 설정
+    public static ConfigurableApplicationContext start(String databaseName, String... extraArgs) {
+        return run("--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1", extraArgs);
+    }
+
+    // file 프로필(H2 파일 DB)로 시작. path : DB 파일 경로(확장자 .mv.db 제외)
+    public static ConfigurableApplicationContext startFile(Path path, String... extraArgs) {
+        return run("--spring.profiles.active=file", prepend("--ddit.h2.path=" + path.toAbsolutePath(), extraArgs));
+    }
+
+    private static ConfigurableApplicationContext run(String databaseArg, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                databaseArg,
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--spring.jpa.properties.hibernate.format_sql=false"));
+        args.addAll(Arrays.asList(extraArgs));
+
+        return new SpringApplicationBuilder(DditApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+    }
+
+    private static String[] prepend(String first, String... rest) {
+        String[] args = new String[rest.length + 1];
+        args[0] = first;
+        System.arraycopy(rest, 0, args, 1, rest.length);
+        return args;
+    }
+}
@@ -0,0 +1,183 @@
+package kr.or.ddit.bench;
+
+import kr.or.ddit.entity.ArticleContentConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 글 내용 저장 방식 비교(H2 파일 DB, 스프링 없이 JDBC로 바로 실행)
+// - inline         : 예전 방식. CONTENT CHARACTER VARYING(행 안에 내용이 그대로 들어감)
+// - compressed-lob : 지금 방식. CONTENT BLOB에 ArticleContentConverter.encode 결과(deflate)를 저장(행 밖의 LOB 저장소)
+// 글마다 내용 약 CONTENT_BYTES(UTF-8)
+// 파일 크기(.mv.db)는 글을 다 등록한 뒤 setUp에서 출력
+// indexPage/scanSummaries는 내용을 읽지 않는 목록 조회, show는 내용을 읽고 푸는 상세 조회
+// DB 페이지 캐시(CACHE_SIZE)를 작게 잡아서 목록 조회가 디스크에서 읽는 양의 차이가 드러나게 함
+// 주의 : ArticleDataGenerator의 단어 수가 적어서 실제 글보다 압축이 훨씬 잘 됨(압축률은 실제보다 높게 나옴)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ContentStorageBenchmark {
+
+    static final int CONTENT_BYTES = 20 * 1024;
+
+    // 페이지 캐시 크기(KB)
+    static final int CACHE_SIZE_KB = 4 * 1024;
+
+    static final int PAGE_SIZE = 20;
+
+    @Param({"inline", "compressed-lob"})
+    public String layout;
+
+    @Param({"10000"})
+    public int rows;
+
+    private Connection connection;
+
+    private PreparedStatement pageStatement;
+    private PreparedStatement scanStatement;
+    private PreparedStatement showStatement;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Path path = H2ModeBenchmark.DATABASE_DIR.resolve("content-" + this.layout + "-" + this.rows);
+        H2ModeBenchmark.deleteDatabase(path);
+
+        this.connection = DriverManager.getConnection(
+                "jdbc:h2:file:" + path.toAbsolutePath() + ";CACHE_SIZE=" + CACHE_SIZE_KB, "sa", "");
+        seed();
+
+        try(Statement statement = this.connection.createStatement()){
+            statement.execute("CHECKPOINT SYNC");
+        }
+        System.out.printf("%n%s : %d articles, %.1f MB (%s.mv.db)%n", this.layout, this.rows,
+                size(Path.of(path + ".mv.db")) / 1024.0 / 1024.0, path);
+
+        this.pageStatement = this.connection.prepareStatement(
+                "SELECT ID, TITLE, VERSION, LAST_MODIFIED FROM ARTICLE WHERE ID > ? ORDER BY ID LIMIT " + PAGE_SIZE);
+        this.scanStatement = this.connection.prepareStatement(
+                "SELECT ID, TITLE FROM ARTICLE ORDER BY ID");
+        this.showStatement = this.connection.prepareStatement(
+                "SELECT TITLE, CONTENT FROM ARTICLE WHERE ID = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        this.connection.close();
+    }
+
+    // 커서 페이지 한 장(20건). 내용 열은 읽지 않음
+    @Benchmark
+    public long indexPage() throws SQLException {
+        this.pageStatement.setLong(1, randomId() - 1);
+        long sum = 0;
+        try(ResultSet rs = this.pageStatement.executeQuery()){
+            while(rs.next()){
+                sum += rs.getLong(1) + rs.getString(2).length();
+            }
+        }
+        return sum;
+    }
+
+    // 전체 글의 id/제목(내보내기, 검색 색인 재구성 같은 전체 훑기)
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long scanSummaries() throws SQLException {
+        long sum = 0;
+        try(ResultSet rs = this.scanStatement.executeQuery()){
+            while(rs.next()){
+                sum += rs.getLong(1) + rs.getString(2).length();
+            }
+        }
+        return sum;
+    }
+
+    // 상세 조회 : 내용을 읽어서 문자열로 만듦(compressed-lob은 압축 풀기 포함)
+    @Benchmark
+    public String show() throws SQLException {
+        this.showStatement.setLong(1, randomId());
+        try(ResultSet rs = this.showStatement.executeQuery()){
+            rs.next();
+            return "inline".equals(this.layout)
+                    ? rs.getString(2)
+                    : ArticleContentConverter.decode(rs.getBytes(2));
+        }
+    }
+
+    private void seed() throws SQLException {
+        String contentType = "inline".equals(this.layout) ? "CHARACTER VARYING" : "BINARY LARGE OBJECT";
+        try(Statement statement = this.connection.createStatement()){
+            statement.execute("CREATE TABLE ARTICLE(ID BIGINT PRIMARY KEY, TITLE CHARACTER VARYING(255), "
+                    + "CONTENT " + contentType + ", VERSION BIGINT, LAST_MODIFIED TIMESTAMP WITH TIME ZONE)");
+        }
+
+        long started = System.nanoTime();
+        ArticleDataGenerator generator = new ArticleDataGenerator(42);
+        this.connection.setAutoCommit(false);
+        try(PreparedStatement insert = this.connection.prepareStatement(
+                "INSERT INTO ARTICLE(ID, TITLE, CONTENT, VERSION, LAST_MODIFIED) VALUES (?, ?, ?, 0, CURRENT_TIMESTAMP)")){
+            for(int id = 1; id <= this.rows; id++){
+                String content = content(generator);
+                insert.setLong(1, id);
+                insert.setString(2, generator.form().getTitle());
+                if("inline".equals(this.layout)){
+                    insert.setString(3, content);
+                }else{
+                    insert.setBytes(3, ArticleContentConverter.encode(content));
+                }
+                insert.addBatch();
+
+                if(id % 500 == 0){
+                    insert.executeBatch();
+                    this.connection.commit();
+                }
+            }
+            insert.executeBatch();
+            this.connection.commit();
+        }finally{
+            this.connection.setAutoCommit(true);
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("seeded %d articles in %.1fs%n", this.rows, seconds);
+    }
+
+    // 생성기의 내용 문장을 이어 붙여 약 CONTENT_BYTES 바이트로 만듦
+    private static String content(ArticleDataGenerator generator) {
+        StringBuilder sb = new StringBuilder();
+        int bytes = 0;
+        while(bytes < CONTENT_BYTES){
+            String sentence = generator.form().getContent();
+            sb.append(sentence).append(". ");
+            bytes += sentence.getBytes(StandardCharsets.UTF_8).length + 2;
+        }
+        return sb.toString();
+    }
+
+    private long randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(this.rows);
+    }
+
+    private static long size(Path path) {
+        try{
+            return Files.size(path);
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package kr.or.ddit.bench;
+
+import kr.or.ddit.dto.ArticleForm;
+import kr.or.ddit.entity.Article;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// DTO -> 엔티티 변환(ArticleForm.toEntity)과 수정 반영(Article.patch) 비용
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class EntityMappingBenchmark {
+
+    private ArticleForm form;
+
+    private Article target;
+
+    private Article patch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ArticleDataGenerator generator = new ArticleDataGenerator(42);
+        this.form = generator.form();
+        this.target = generator.form().toEntity();
+        this.patch = new Article(null, "개똥이의 여행", null);
+    }
+
+    @Benchmark
+    public Article toEntity() {
+        return this.form.toEntity();
+    }
+
+    @Benchmark
+    public Article patch() {
+        this.target.patch(this.patch);
+        return this.target;
+    }
+}
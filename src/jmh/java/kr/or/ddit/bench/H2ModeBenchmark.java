@@ -0,0 +1,115 @@
+package kr.or.ddit.bench;
+
+import kr.or.ddit.dto.ArticleForm;
+import kr.or.ddit.dto.ArticlePage;
+import kr.or.ddit.entity.Article;
+import kr.or.ddit.service.ArticleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// H2 메모리 DB(mem) / 파일 DB(file 프로필, MVStore) 의 상세/목록/수정/등록 처리량 비교
+// DB 자체를 비교하도록 스프링 캐시와 Hibernate 2차/쿼리 캐시는 끔
+// 파일 DB는 build/jmh-h2/ 아래에 trial마다 새로 만듦
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class H2ModeBenchmark {
+
+    // 벤치마크용 파일 DB를 두는 디렉터리
+    static final Path DATABASE_DIR = Path.of("build", "jmh-h2");
+
+    // 캐시를 꺼서 매번 DB를 읽게 함
+    static final String[] NO_CACHE = {
+            "--spring.cache.type=none",
+            "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+            "--spring.jpa.properties.hibernate.cache.use_query_cache=false"
+    };
+
+    @Param({"mem", "file"})
+    public String mode;
+
+    @Param({"1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private ArticleService articleService;
+
+    private ArticleDataGenerator generator;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if("file".equals(this.mode)){
+            Path path = DATABASE_DIR.resolve("mode-" + this.rows);
+            deleteDatabase(path);
+            this.context = BenchmarkContext.startFile(path, NO_CACHE);
+        }else{
+            this.context = BenchmarkContext.start("mode" + this.rows, NO_CACHE);
+        }
+        this.articleService = this.context.getBean(ArticleService.class);
+        this.generator = new ArticleDataGenerator(42);
+        this.generator.seed(this.articleService, this.rows);
+        this.ids = loadIds(this.context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public Article show() {
+        return this.articleService.show(randomId());
+    }
+
+    // 커서 페이지 한 장(20건)
+    @Benchmark
+    public ArticlePage indexPage() {
+        return this.articleService.index(randomId(), ArticleService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Article update() {
+        return this.articleService.update(new ArticleForm(randomId(), this.generator.form().getTitle(), null));
+    }
+
+    @Benchmark
+    public Article create() {
+        return this.articleService.create(this.generator.form().toEntity());
+    }
+
+    private long randomId() {
+        return this.ids[ThreadLocalRandom.current().nextInt(this.ids.length)];
+    }
+
+    // DB에 있는 모든 글 id(초기 글 포함)
+    static long[] loadIds(ConfigurableApplicationContext context) {
+        List<Long> ids = context.getBean(JdbcTemplate.class)
+                .queryForList("SELECT ID FROM ARTICLE ORDER BY ID", Long.class);
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // H2 파일 DB 삭제(path.mv.db, path.trace.db)
+    static void deleteDatabase(Path path) {
+        try{
+            Files.deleteIfExists(Path.of(path + ".mv.db"));
+            Files.deleteIfExists(Path.of(path + ".trace.db"));
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package kr.or.ddit.bench;
+
+import kr.or.ddit.service.ArticleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// 기동 후 rows건의 글을 쓸 수 있을 때까지 걸리는 시간(mem / file)
+// - mem : 컨텍스트 시작 + 글 rows건 다시 등록(메모리 DB는 재기동하면 비어 있으므로)
+// - file : 이미 rows건이 저장된 파일 DB로 컨텍스트 시작(스키마/초기 글 스크립트는 IF NOT EXISTS / NOT EXISTS로 건너뜀)
+// 둘 다 마지막에 글 수를 한 번 세어 DB를 실제로 열었는지 확인
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class H2StartupBenchmark {
+
+    @Param({"mem", "file"})
+    public String mode;
+
+    @Param({"1000000"})
+    public int rows;
+
+    private Path path;
+
+    // 파일 DB는 한 번 만들어 두고 다음 실행에서도 재사용
+    @Setup(Level.Trial)
+    public void setUp() {
+        if(!"file".equals(this.mode)){
+            return;
+        }
+        this.path = H2ModeBenchmark.DATABASE_DIR.resolve("startup-" + this.rows);
+        if(Files.exists(Path.of(this.path + ".mv.db"))){
+            return;
+        }
+        try(ConfigurableApplicationContext context = BenchmarkContext.startFile(this.path)){
+            new ArticleDataGenerator(42).seed(context.getBean(ArticleService.class), this.rows);
+        }
+    }
+
+    @Benchmark
+    public long startup() {
+        if("file".equals(this.mode)){
+            try(ConfigurableApplicationContext context = BenchmarkContext.startFile(this.path)){
+                return count(context);
+            }
+        }
+
+        try(ConfigurableApplicationContext context = BenchmarkContext.start("startup" + this.rows)){
+            new ArticleDataGenerator(42).seed(context.getBean(ArticleService.class), this.rows);
+            return count(context);
+        }
+    }
+
+    private static long count(ConfigurableApplicationContext context) {
+        return context.getBean(JdbcTemplate.class).queryForObject("SELECT COUNT(*) FROM ARTICLE", Long.class);
+    }
+}
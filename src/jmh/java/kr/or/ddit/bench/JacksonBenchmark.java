@@ -0,0 +1,44 @@
+package kr.or.ddit.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kr.or.ddit.entity.Article;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Article 목록의 JSON 직렬화(GET /api/articles 응답 본문 만들기) 비용
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class JacksonBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<Article> articles;
+
+    private Article article;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.articles = new ArticleDataGenerator(42).articles(this.size);
+        this.article = this.articles.get(0);
+    }
+
+    @Benchmark
+    public byte[] writeList() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.articles);
+    }
+
+    @Benchmark
+    public byte[] writeOne() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.article);
+    }
+}
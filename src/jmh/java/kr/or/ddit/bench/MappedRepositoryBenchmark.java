@@ -0,0 +1,117 @@
+package kr.or.ddit.bench;
+
+import kr.or.ddit.dto.ArticleSummary;
+import kr.or.ddit.entity.Article;
+import kr.or.ddit.repository.ArticleRepository;
+import kr.or.ddit.service.ArticleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// ArticleRepository 구현 비교 : jpa(H2 메모리 DB + Hibernate) / mapped(메모리 매핑 세그먼트, mapped 프로필)
+// 상세 조회(findById)와 전체 훑기(id/제목 키셋 페이지로 끝까지, export로 전체 글 JSON 직렬화)
+// 저장소 자체를 비교하도록 스프링 캐시와 Hibernate 2차/쿼리 캐시는 끔. mapped 세그먼트는 build/jmh-mapped/ 아래에 trial마다 새로 만듦
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class MappedRepositoryBenchmark {
+
+    static final Path SEGMENT_DIR = Path.of("build", "jmh-mapped");
+
+    // 전체 훑기의 한 페이지 크기
+    private static final int SCAN_PAGE_SIZE = 1000;
+
+    @Param({"jpa", "mapped"})
+    public String store;
+
+    @Param({"100000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private ArticleRepository articleRepository;
+
+    private ArticleService articleService;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if("mapped".equals(this.store)){
+            Path directory = SEGMENT_DIR.resolve("repository-" + this.rows);
+            deleteDirectory(directory);
+            String[] args = {
+                    "--spring.profiles.active=mapped",
+                    "--article.mapped.dir=" + directory.toAbsolutePath()
+            };
+            this.context = BenchmarkContext.start("mapped" + this.rows, concat(args, H2ModeBenchmark.NO_CACHE));
+        }else{
+            this.context = BenchmarkContext.start("jpa" + this.rows, H2ModeBenchmark.NO_CACHE);
+        }
+        this.articleRepository = this.context.getBean(ArticleRepository.class);
+        this.articleService = this.context.getBean(ArticleService.class);
+        this.ids = new ArticleDataGenerator(42).seed(this.articleService, this.rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public Article findById() {
+        return this.articleRepository.findById(this.ids[ThreadLocalRandom.current().nextInt(this.ids.length)])
+                .orElse(null);
+    }
+
+    // 키셋 페이지(id, 제목)로 처음부터 끝까지. 반환값은 읽은 글 수
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public long scanSummaries() {
+        long count = 0;
+        long after = 0;
+        List<ArticleSummary> page;
+        do{
+            page = this.articleRepository.findSummariesAfter(after, Limit.of(SCAN_PAGE_SIZE));
+            if(!page.isEmpty()){
+                after = page.get(page.size() - 1).id();
+            }
+            count += page.size();
+        }while(page.size() == SCAN_PAGE_SIZE);
+        return count;
+    }
+
+    // 전체 글(내용 포함)을 forEachArticle로 읽어 NDJSON으로 직렬화(GET /api/articles/export와 같은 경로)
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public long scanAll() throws IOException {
+        return this.articleService.export(OutputStream.nullOutputStream());
+    }
+
+    private static String[] concat(String[] first, String[] second) {
+        String[] args = new String[first.length + second.length];
+        System.arraycopy(first, 0, args, 0, first.length);
+        System.arraycopy(second, 0, args, first.length, second.length);
+        return args;
+    }
+
+    private static void deleteDirectory(Path directory) {
+        try{
+            FileSystemUtils.deleteRecursively(directory);
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package kr.or.ddit.bench;
+
+import com.samskivert.mustache.Mustache;
+import kr.or.ddit.dto.ArticleSummary;
+import kr.or.ddit.view.PrecompiledMustacheViewResolver;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.servlet.view.MustacheViewResolver;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.View;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// ArticleController.index 화면(articles/index) 렌더링 시간/할당량 비교(gc 프로파일러의 gc.alloc.rate.norm)
+// - boot        : 스프링 부트 기본 MustacheView(요청마다 템플릿과 layouts partial을 읽고 컴파일)
+// - precompiled : PrecompiledMustacheViewResolver(기동 시 컴파일, 정적 레이아웃은 바이트 캐시)
+// 컨트롤러와 같은 모델(목록 rows건 + 페이지 정보)을 Mock 응답에 렌더링
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class MustacheRenderBenchmark {
+
+    @Param({"boot", "precompiled"})
+    public String view;
+
+    @Param({"10", "1000", "10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private View indexView;
+
+    private Map<String, Object> model;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.context = BenchmarkContext.start("render");
+
+        if("boot".equals(this.view)){
+            MustacheViewResolver resolver = new MustacheViewResolver(this.context.getBean(Mustache.Compiler.class));
+            resolver.setPrefix("classpath:/templates/");
+            resolver.setSuffix(".mustache");
+            resolver.setApplicationContext(this.context);
+            this.indexView = resolver.resolveViewName("articles/index", Locale.KOREA);
+        }else{
+            this.indexView = this.context.getBean(PrecompiledMustacheViewResolver.class)
+                    .resolveViewName("articles/index", Locale.KOREA);
+        }
+
+        List<ArticleSummary> articles = new ArrayList<>(this.rows);
+        for(long id = 1; id <= this.rows; id++){
+            articles.add(new ArticleSummary(id, "개똥이의 여행 " + id));
+        }
+        this.model = new HashMap<>();
+        this.model.put("articleList", articles);
+        this.model.put("pageNumber", 2);
+        this.model.put("size", this.rows);
+        this.model.put("hasPrevious", true);
+        this.model.put("prevPage", 0);
+        this.model.put("hasNext", true);
+        this.model.put("nextPage", 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+    }
+
+    // 렌더링된 바이트 수 반환
+    @Benchmark
+    public int renderIndex() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.indexView.render(this.model, new MockHttpServletRequest("GET", "/articles"), response);
+        return response.getContentAsByteArray().length;
+    }
+}
@@ -0,0 +1,65 @@
+package kr.or.ddit.bench;
+
+import kr.or.ddit.ratelimit.ApiRateLimiter;
+import kr.or.ddit.ratelimit.ApiRoute;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+요청 제한(ApiRateLimitFilter)이 요청마다 더하는 비용 : 경로 구분 + 토큰 버킷 CAS
+ - oneClient   : 모든 스레드가 같은 클라이언트(같은 AtomicLong)를 두드림 -> CAS 경합 최악
+ - manyClients : clients명 중 임의의 클라이언트 -> Caffeine 조회 + 경합 거의 없음
+ rate는 크게 잡아 대부분 허용되게 함(거절 경로도 같은 CAS 한 번 이하라 비용이 더 작음)
+ 실행 : gradle jmh -Pjmh.includes=RateLimiter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1000", "100000"})
+    public int clients;
+
+    private ApiRateLimiter limiter;
+
+    private String[] clientIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.limiter = new ApiRateLimiter(1_000_000_000, 1_000_000, this.clients * 2L, Duration.ofMinutes(10));
+        this.clientIds = new String[this.clients];
+        for(int i = 0; i < this.clients; i++){
+            this.clientIds[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public ApiRoute route() {
+        return ApiRoute.of("GET", "/api/articles/12345");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long oneClient() {
+        return this.limiter.tryAcquire(this.clientIds[0], ApiRoute.SHOW.defaultCost(), System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long oneClientContended() {
+        return this.limiter.tryAcquire(this.clientIds[0], ApiRoute.SHOW.defaultCost(), System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long manyClients() {
+        String client = this.clientIds[ThreadLocalRandom.current().nextInt(this.clients)];
+        return this.limiter.tryAcquire(client, ApiRoute.INDEX.defaultCost(), System.nanoTime());
+    }
+}
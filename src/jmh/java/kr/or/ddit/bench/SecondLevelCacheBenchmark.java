@@ -0,0 +1,87 @@
+package kr.or.ddit.bench;
+
+import jakarta.persistence.EntityManagerFactory;
+import kr.or.ddit.dto.ArticleSummary;
+import kr.or.ddit.entity.Article;
+import kr.or.ddit.repository.ArticleRepository;
+import kr.or.ddit.service.ArticleService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Hibernate 2차 캐시/쿼리 캐시 켬(on)/끔(off) 비교
+// ArticleService.show의 스프링 캐시를 거치지 않도록 리파지터리를 직접 호출하고,
+// 끝나면 연산 1회당 DB로 보낸 SQL 수(Hibernate Statistics의 prepareStatementCount)를 출력
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    @Param({"on", "off"})
+    public String cache;
+
+    @Param({"100000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private ArticleRepository articleRepository;
+
+    private Statistics statistics;
+
+    private long[] ids;
+
+    private long operations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean enabled = "on".equals(this.cache);
+        this.context = BenchmarkContext.start("l2" + this.cache,
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + enabled,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + enabled);
+        this.articleRepository = this.context.getBean(ArticleRepository.class);
+        this.statistics = this.context.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        this.ids = new ArticleDataGenerator(42).seed(this.context.getBean(ArticleService.class), this.rows);
+        this.statistics.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%ncache=%s statements/op=%.3f second-level hit=%d miss=%d query-cache hit=%d miss=%d%n",
+                this.cache,
+                (double) this.statistics.getPrepareStatementCount() / Math.max(this.operations, 1),
+                this.statistics.getSecondLevelCacheHitCount(), this.statistics.getSecondLevelCacheMissCount(),
+                this.statistics.getQueryCacheHitCount(), this.statistics.getQueryCacheMissCount());
+        this.context.close();
+    }
+
+    // 자주 읽히는 글 1000개 중 하나를 상세 조회
+    @Benchmark
+    public Article findById() {
+        this.operations++;
+        return this.articleRepository.findById(hotId()).orElse(null);
+    }
+
+    // 자주 보는 앞쪽 목록 페이지
+    @Benchmark
+    public List<ArticleSummary> firstPage() {
+        this.operations++;
+        return this.articleRepository.findSummariesAfter(0L, Limit.of(ArticleService.DEFAULT_PAGE_SIZE));
+    }
+
+    private long hotId() {
+        return this.ids[ThreadLocalRandom.current().nextInt(Math.min(1000, this.ids.length))];
+    }
+}
@@ -0,0 +1,121 @@
+package kr.or.ddit.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+/api/articles 부하 테스트(closed model)
+ concurrency개의 가상 스레드 클라이언트가 duration초 동안 쉬지 않고 요청을 보냄
+ (목록 1 : 상세 1 비율, 상세는 data.sql의 글 1~3 중 하나)
+ 끝나면 처리량(req/s)과 지연 시간 p50/p99/max, 오류 수를 출력
+
+ 실행 : gradle loadTest -PbaseUrl=http://localhost:8030 -Pconcurrency=200 -Pduration=30
+ */
+public class ArticleLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8030";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(durationSeconds).toNanos();
+
+        List<Future<Recorder>> futures = new ArrayList<>(concurrency);
+        try(ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()){
+            for(int i = 0; i < concurrency; i++){
+                futures.add(clients.submit(() -> runClient(client, baseUrl, deadline)));
+            }
+        }
+
+        Recorder total = new Recorder();
+        for(Future<Recorder> future : futures){
+            total.merge(future.get());
+        }
+        total.print(concurrency, durationSeconds);
+    }
+
+    private static Recorder runClient(HttpClient client, String baseUrl, long deadline) {
+        Recorder recorder = new Recorder();
+        boolean list = ThreadLocalRandom.current().nextBoolean();
+
+        while(System.nanoTime() < deadline){
+            String path = list
+                    ? "/api/articles?limit=20"
+                    : "/api/articles/" + (1 + ThreadLocalRandom.current().nextInt(3));
+            list = !list;
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build();
+
+            long started = System.nanoTime();
+            try{
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                recorder.record(System.nanoTime() - started, response.statusCode() < 400);
+            }catch(Exception e){
+                recorder.record(System.nanoTime() - started, false);
+            }
+        }
+
+        return recorder;
+    }
+
+    // 요청별 지연 시간(ns) 기록
+    static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        void record(long nanos, boolean ok) {
+            if(this.count == this.latencies.length){
+                this.latencies = Arrays.copyOf(this.latencies, this.count * 2);
+            }
+            this.latencies[this.count++] = nanos;
+            if(!ok){
+                this.errors++;
+            }
+        }
+
+        void merge(Recorder other) {
+            for(int i = 0; i < other.count; i++){
+                record(other.latencies[i], true);
+            }
+            this.errors += other.errors;
+        }
+
+        void print(int concurrency, int durationSeconds) {
+            long[] sorted = Arrays.copyOf(this.latencies, this.count);
+            Arrays.sort(sorted);
+
+            System.out.printf("concurrency=%d duration=%ds requests=%d errors=%d%n",
+                    concurrency, durationSeconds, this.count, this.errors);
+            System.out.printf("throughput=%.1f req/s%n", (double) this.count / durationSeconds);
+            System.out.printf("latency p50=%.2fms p99=%.2fms max=%.2fms%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if(sorted.length == 0){
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
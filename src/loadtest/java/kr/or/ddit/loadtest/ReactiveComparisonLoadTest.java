@@ -0,0 +1,225 @@
+package kr.or.ddit.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+서블릿(kr.or.ddit.DditApplication, JPA) 버전과 reactive(kr.or.ddit.reactive.ReactiveArticleApplication, WebFlux + R2DBC) 버전 비교
+ 두 서버를 차례로 새 JVM으로 띄우고 같은 부하를 줌
+ - connections개의 가상 스레드 클라이언트가 요청마다 thinkMs(0 ~ 2*thinkMs 무작위)만큼 쉬면서 duration초 동안 요청
+   (느린 클라이언트가 연결을 오래 붙잡고 있는 상황. 목록 1 : 상세 1, 상세는 글 1~3 중 하나)
+ - 처리량(req/s), 지연 시간 p50/p99/max, 오류 수
+ - 서버 프로세스의 /proc/<pid>/status VmRSS, Threads : 부하 전(idle)과 부하 중 최대값, 연결당 메모리 = (최대 - idle) / connections
+   (리눅스에서만 읽을 수 있음. 다른 OS에서는 메모리/스레드 줄을 출력하지 않음)
+
+ 실행 : gradle reactiveLoadTest -Pconnections=2000 -Pduration=30 -PthinkMs=100
+ 인자 : java 실행 파일, 서블릿 버전 클래스패스, reactive 버전 클래스패스, connections, duration(초), thinkMs
+ */
+public class ReactiveComparisonLoadTest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    public static void main(String[] args) throws Exception {
+        String java = args[0];
+        String servletClasspath = args[1];
+        String reactiveClasspath = args[2];
+        int connections = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+        int durationSeconds = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+        int thinkMs = args.length > 5 ? Integer.parseInt(args[5]) : 100;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        // prod : SQL 로그 끔. 요청 제한(prod에서 켜짐)은 한 IP에서 오는 부하를 거절하므로 끔
+        run("servlet", client, List.of(java, "-cp", servletClasspath, "kr.or.ddit.DditApplication",
+                "--spring.profiles.active=prod", "--article.rate-limit.enabled=false"),
+                connections, durationSeconds, thinkMs);
+        run("reactive", client, List.of(java, "-cp", reactiveClasspath, "kr.or.ddit.reactive.ReactiveArticleApplication"),
+                connections, durationSeconds, thinkMs);
+    }
+
+    private static void run(String name, HttpClient client, List<String> command,
+                            int connections, int durationSeconds, int thinkMs) throws Exception {
+        int port = freePort();
+        List<String> withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+        String baseUrl = "http://localhost:" + port;
+
+        Process process = new ProcessBuilder(withPort)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try{
+            awaitStartup(client, baseUrl, process, withPort);
+
+            // 워밍업 : JIT, 커넥션 풀, 캐시를 채운 뒤 idle 상태를 잼
+            runLoad(client, baseUrl, 50, 5, 0);
+            System.gc();
+            Thread.sleep(1000);
+            ProcessStatus idle = ProcessStatus.read(process.pid());
+
+            ProcessStatus peak = new ProcessStatus(idle.rssKb.get(), idle.threads.get());
+            Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+                try{
+                    while(!Thread.currentThread().isInterrupted()){
+                        peak.max(ProcessStatus.read(process.pid()));
+                        Thread.sleep(200);
+                    }
+                }catch(InterruptedException e){
+                    // 부하 종료
+                }
+            });
+
+            ArticleLoadTest.Recorder recorder = runLoad(client, baseUrl, connections, durationSeconds, thinkMs);
+            sampler.interrupt();
+            sampler.join();
+
+            System.out.printf("== %s (thinkMs=%d)%n", name, thinkMs);
+            recorder.print(connections, durationSeconds);
+            if(idle.available()){
+                System.out.printf("rss idle=%dMB peak=%dMB per-connection=%.1fKB%n",
+                        idle.rssKb.get() / 1024, peak.rssKb.get() / 1024,
+                        (double) (peak.rssKb.get() - idle.rssKb.get()) / connections);
+                System.out.printf("threads idle=%d peak=%d%n", idle.threads.get(), peak.threads.get());
+            }
+        }finally{
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static ArticleLoadTest.Recorder runLoad(HttpClient client, String baseUrl, int connections,
+                                                    int durationSeconds, int thinkMs) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(durationSeconds).toNanos();
+
+        List<Future<ArticleLoadTest.Recorder>> futures = new ArrayList<>(connections);
+        try(ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()){
+            for(int i = 0; i < connections; i++){
+                futures.add(clients.submit(() -> runClient(client, baseUrl, deadline, thinkMs)));
+            }
+        }
+
+        ArticleLoadTest.Recorder total = new ArticleLoadTest.Recorder();
+        for(Future<ArticleLoadTest.Recorder> future : futures){
+            total.merge(future.get());
+        }
+        return total;
+    }
+
+    private static ArticleLoadTest.Recorder runClient(HttpClient client, String baseUrl, long deadline,
+                                                      int thinkMs) throws InterruptedException {
+        ArticleLoadTest.Recorder recorder = new ArticleLoadTest.Recorder();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean list = random.nextBoolean();
+
+        while(System.nanoTime() < deadline){
+            String path = list
+                    ? "/api/articles?limit=20"
+                    : "/api/articles/" + (1 + random.nextInt(3));
+            list = !list;
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build();
+
+            long started = System.nanoTime();
+            try{
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                recorder.record(System.nanoTime() - started, response.statusCode() < 400);
+            }catch(IOException e){
+                recorder.record(System.nanoTime() - started, false);
+            }
+
+            if(thinkMs > 0){
+                Thread.sleep(random.nextInt(thinkMs * 2 + 1));
+            }
+        }
+
+        return recorder;
+    }
+
+    private static void awaitStartup(HttpClient client, String baseUrl, Process process,
+                                     List<String> command) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/articles"))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while(System.nanoTime() < deadline){
+            if(!process.isAlive()){
+                throw new IllegalStateException("server exited with " + process.exitValue() + " : " + command);
+            }
+            try{
+                if(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200){
+                    return;
+                }
+            }catch(IOException e){
+                // 아직 포트가 열리지 않음
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("server did not answer within " + STARTUP_TIMEOUT + " : " + command);
+    }
+
+    private static int freePort() throws IOException {
+        try(ServerSocket socket = new ServerSocket(0)){
+            return socket.getLocalPort();
+        }
+    }
+
+    // /proc/<pid>/status 의 VmRSS(kB), Threads. 읽을 수 없으면 -1
+    private static final class ProcessStatus {
+        private final AtomicLong rssKb;
+        private final AtomicLong threads;
+
+        ProcessStatus(long rssKb, long threads) {
+            this.rssKb = new AtomicLong(rssKb);
+            this.threads = new AtomicLong(threads);
+        }
+
+        static ProcessStatus read(long pid) {
+            long rss = -1;
+            long threads = -1;
+            try{
+                for(String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))){
+                    if(line.startsWith("VmRSS:")){
+                        rss = Long.parseLong(line.replaceAll("\\D", ""));
+                    }else if(line.startsWith("Threads:")){
+                        threads = Long.parseLong(line.replaceAll("\\D", ""));
+                    }
+                }
+            }catch(IOException | NumberFormatException e){
+                // 리눅스가 아니거나 프로세스가 끝남
+            }
+            return new ProcessStatus(rss, threads);
+        }
+
+        boolean available() {
+            return this.rssKb.get() >= 0;
+        }
+
+        void max(ProcessStatus other) {
+            this.rssKb.accumulateAndGet(other.rssKb.get(), Math::max);
+            this.threads.accumulateAndGet(other.threads.get(), Math::max);
+        }
+    }
+}
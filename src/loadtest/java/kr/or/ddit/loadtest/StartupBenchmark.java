@@ -0,0 +1,122 @@
+package kr.or.ddit.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+기동 시간 비교 : 서버 프로세스를 띄운 순간부터 GET /api/articles 가 처음 200으로 응답할 때까지(time-to-first-request)
+ 모드마다 runs번씩 새 JVM을 띄워 재고, 최소/중앙값/최대를 출력
+ - baseline : java -jar (AOT, CDS 없음)
+ - aot      : -Dspring.aot.enabled=true
+ - aot+cds  : -Dspring.aot.enabled=true -XX:SharedArchiveFile=ddit.jsa
+
+ 실행 : gradle startupBenchmark -Pruns=5   (bootJar -> 풀기 -> CDS 학습 실행까지 먼저 수행됨)
+ 인자 : java 실행 파일, 풀린 jar 디렉터리, jar 이름, 모드별 실행 횟수
+ */
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    public static void main(String[] args) throws Exception {
+        String java = args[0];
+        Path appDir = Path.of(args[1]);
+        String jarName = args[2];
+        int runs = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        Path archive = appDir.resolve("ddit.jsa");
+        if(!Files.exists(archive)){
+            throw new IllegalStateException("CDS archive not found : " + archive + " (run gradle cdsArchive)");
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(200))
+                .build();
+
+        List<String> modes = List.of("baseline", "aot", "aot+cds");
+        for(String mode : modes){
+            long[] millis = new long[runs];
+            for(int i = 0; i < runs; i++){
+                millis[i] = timeToFirstRequest(client, command(java, jarName, mode), appDir);
+            }
+            Arrays.sort(millis);
+            System.out.printf("%-9s runs=%d min=%dms median=%dms max=%dms%n",
+                    mode, runs, millis[0], millis[runs / 2], millis[runs - 1]);
+        }
+    }
+
+    private static List<String> command(String java, String jarName, String mode) {
+        List<String> command = new ArrayList<>(List.of(java));
+        if(mode.contains("aot")){
+            command.add("-Dspring.aot.enabled=true");
+        }
+        if(mode.contains("cds")){
+            command.add("-XX:SharedArchiveFile=ddit.jsa");
+            // 아카이브를 못 쓰면 조용히 무시하지 않고 기동 실패로 드러나게 함
+            command.add("-Xshare:on");
+        }
+        command.add("-jar");
+        command.add(jarName);
+        // SQL 로그는 기동 시간을 늘리므로 prod 설정으로 끔
+        command.add("--spring.profiles.active=prod");
+        // prod는 요청 제한 필터를 켜지만 AOT는 빌드 시점(기본 프로필)에 조건을 평가해서 필터를 빼 버림
+        //  -> 모든 모드가 같은 빈으로 뜨도록 끔(WorkloadLoadTest와 같음)
+        command.add("--article.rate-limit.enabled=false");
+        return command;
+    }
+
+    // 프로세스 시작부터 첫 200 응답까지 걸린 시간(ms). 끝나면 프로세스를 종료함
+    private static long timeToFirstRequest(HttpClient client, List<String> command, Path appDir) throws Exception {
+        int port = freePort();
+        List<String> withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/articles"))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(withPort)
+                .directory(appDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try{
+            long deadline = started + STARTUP_TIMEOUT.toNanos();
+            while(System.nanoTime() < deadline){
+                if(!process.isAlive()){
+                    throw new IllegalStateException("server exited with " + process.exitValue() + " : " + withPort);
+                }
+                try{
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if(response.statusCode() == 200){
+                        return (System.nanoTime() - started) / 1_000_000;
+                    }
+                }catch(IOException e){
+                    // 아직 포트가 열리지 않음
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("server did not answer within " + STARTUP_TIMEOUT + " : " + withPort);
+        }finally{
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try(ServerSocket socket = new ServerSocket(0)){
+            return socket.getLocalPort();
+        }
+    }
+}
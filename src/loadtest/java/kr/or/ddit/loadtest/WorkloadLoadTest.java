@@ -0,0 +1,436 @@
+package kr.or.ddit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import kr.or.ddit.dto.ArticleBatchResult;
+import kr.or.ddit.dto.ArticleForm;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+글 API 종단(end-to-end) 부하 테스트(open model)
+ 1. DditApplication을 빈 포트에 새 JVM으로 띄움(-Pprofiles, 기본 prod)
+    요청 제한(article.rate-limit)은 한 IP에서 오는 부하를 거절하므로 항상 끄고 띄움
+ 2. POST /api/articles/batch 로 글 articles개를 미리 등록
+ 3. 응답을 기다리지 않고 초당 rate개의 요청을 일정한 간격으로 보냄. 요청마다 가상 스레드 하나
+    경로는 mix 비율대로 무작위로 고름(기본 show=80,index=10,create=5,update=4,delete=1)
+    - show   : GET /api/articles/{id}
+    - index  : GET /api/articles?limit=20
+    - create : POST /api/articles
+    - update : PATCH /api/articles/{id}
+    - delete : DELETE /api/articles/{id}
+    대상 id는 등록/삭제에 따라 바뀌는 살아 있는 글 id 중에서 고름
+ 4. 지연 시간은 요청을 보냈어야 할 시각부터 잼(서버가 밀려서 늦게 보낸 시간도 포함, coordinated omission 보정)
+    동시에 진행 중인 요청이 maxInFlight개를 넘으면 보내지 않고 dropped 오류로 셈
+ 결과 : 경로별 요청 수, 처리량, 오류율, 상태 코드별 수, HdrHistogram 지연 시간 백분위(ms)
+       콘솔에 출력하고 report(JSON)에 저장. CI에서 실행 결과끼리 비교(diff)할 수 있도록 키 순서를 고정함
+
+ 실행 : gradle workloadTest -Particles=10000 -Prate=500 -Pduration=60 -Pwarmup=10
+                            -Pmix=show=80,index=10,create=5,update=4,delete=1
+ 인자 : java 실행 파일, 서버 클래스패스, articles, rate, duration(초), warmup(초), mix, report 경로, profiles
+ */
+public class WorkloadLoadTest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private static final int SEED_BATCH_SIZE = 500;
+
+    private static final int MAX_IN_FLIGHT = 10_000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    enum Route {
+        SHOW, INDEX, CREATE, UPDATE, DELETE
+    }
+
+    public static void main(String[] args) throws Exception {
+        String java = args[0];
+        String classpath = args[1];
+        int articles = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int rate = args.length > 3 ? Integer.parseInt(args[3]) : 500;
+        int durationSeconds = args.length > 4 ? Integer.parseInt(args[4]) : 60;
+        int warmupSeconds = args.length > 5 ? Integer.parseInt(args[5]) : 10;
+        String mixSpec = args.length > 6 ? args[6] : "show=80,index=10,create=5,update=4,delete=1";
+        Path report = Path.of(args.length > 7 ? args[7] : "build/reports/loadtest/workload.json");
+        String profiles = args.length > 8 ? args[8] : "prod";
+
+        Route[] mix = parseMix(mixSpec);
+
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Path serverLog = report.resolveSibling("server.log");
+
+        int port = freePort();
+        String baseUrl = "http://localhost:" + port;
+        List<String> command = List.of(java, "-cp", classpath, "kr.or.ddit.DditApplication",
+                "--server.port=" + port,
+                "--spring.profiles.active=" + profiles,
+                "--article.rate-limit.enabled=false");
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(serverLog.toFile())
+                .start();
+        try{
+            awaitStartup(client, baseUrl, process, command);
+
+            IdPool ids = new IdPool();
+            seed(client, baseUrl, articles, ids);
+            System.out.printf("seeded %d articles (server log : %s)%n", ids.size(), serverLog);
+
+            if(warmupSeconds > 0){
+                drive(client, baseUrl, mix, ids, rate, warmupSeconds);
+            }
+            Stats stats = drive(client, baseUrl, mix, ids, rate, durationSeconds);
+
+            Map<String, Object> json = new LinkedHashMap<>();
+            Map<String, Object> config = new LinkedHashMap<>();
+            config.put("articles", articles);
+            config.put("rate", rate);
+            config.put("durationSeconds", durationSeconds);
+            config.put("warmupSeconds", warmupSeconds);
+            config.put("mix", mixSpec);
+            config.put("profiles", profiles);
+            json.put("config", config);
+            json.putAll(stats.toJson(durationSeconds));
+            MAPPER.writeValue(report.toFile(), json);
+
+            stats.print(durationSeconds);
+            System.out.println("report : " + report.toAbsolutePath());
+        }finally{
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    // "show=80,index=10,..." -> 100칸짜리 경로 표. 무작위로 한 칸을 골라 비율을 맞춤
+    static Route[] parseMix(String spec) {
+        List<Route> table = new ArrayList<>();
+        for(String entry : spec.split(",")){
+            String[] pair = entry.trim().split("=");
+            if(pair.length != 2){
+                throw new IllegalArgumentException("mix entry must be route=weight : " + entry);
+            }
+            Route route = Route.valueOf(pair[0].trim().toUpperCase());
+            int weight = Integer.parseInt(pair[1].trim());
+            for(int i = 0; i < weight; i++){
+                table.add(route);
+            }
+        }
+        if(table.isEmpty()){
+            throw new IllegalArgumentException("mix has no weight : " + spec);
+        }
+        return table.toArray(new Route[0]);
+    }
+
+    private static void seed(HttpClient client, String baseUrl, int articles, IdPool ids) throws Exception {
+        for(int from = 0; from < articles; from += SEED_BATCH_SIZE){
+            int to = Math.min(articles, from + SEED_BATCH_SIZE);
+            List<ArticleForm> forms = new ArrayList<>(to - from);
+            for(int i = from; i < to; i++){
+                forms.add(new ArticleForm(null, "부하 테스트 " + i, "부하 테스트 본문 " + i));
+            }
+
+            HttpResponse<String> response = client.send(
+                    json(baseUrl + "/api/articles/batch", "POST", MAPPER.writeValueAsString(forms)),
+                    HttpResponse.BodyHandlers.ofString());
+            if(response.statusCode() != 200){
+                throw new IllegalStateException("seed failed with " + response.statusCode() + " : " + response.body());
+            }
+            for(ArticleBatchResult result : MAPPER.readValue(response.body(), ArticleBatchResult[].class)){
+                if(result.getStatus() == ArticleBatchResult.Status.CREATED){
+                    ids.add(result.getId());
+                }
+            }
+        }
+    }
+
+    // 초당 rate개의 요청을 응답과 상관없이 일정한 간격으로 보냄
+    private static Stats drive(HttpClient client, String baseUrl, Route[] mix, IdPool ids,
+                               int rate, int durationSeconds) {
+        Stats stats = new Stats();
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        long interval = 1_000_000_000L / rate;
+        long total = (long) rate * durationSeconds;
+        long start = System.nanoTime();
+
+        try(ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()){
+            for(long i = 0; i < total; i++){
+                long intended = start + i * interval;
+                long wait = intended - System.nanoTime();
+                if(wait > 0){
+                    LockSupport.parkNanos(wait);
+                }
+
+                Route route = mix[ThreadLocalRandom.current().nextInt(mix.length)];
+                if(!inFlight.tryAcquire()){
+                    stats.dropped(route);
+                    continue;
+                }
+                requests.execute(() -> {
+                    try{
+                        send(client, baseUrl, route, ids, intended, stats);
+                    }finally{
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+
+    private static void send(HttpClient client, String baseUrl, Route route, IdPool ids,
+                             long intended, Stats stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = 0;
+        int status;
+        try{
+            HttpRequest request;
+            switch(route){
+                case SHOW -> {
+                    id = ids.random();
+                    request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/articles/" + id))
+                            .timeout(Duration.ofSeconds(10)).GET().build();
+                }
+                case INDEX -> request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/articles?limit=20"))
+                        .timeout(Duration.ofSeconds(10)).GET().build();
+                case CREATE -> request = json(baseUrl + "/api/articles", "POST",
+                        MAPPER.writeValueAsString(new ArticleForm(null, "부하 테스트 등록", "본문 " + random.nextInt())));
+                case UPDATE -> {
+                    id = ids.random();
+                    request = json(baseUrl + "/api/articles/" + id, "PATCH",
+                            MAPPER.writeValueAsString(new ArticleForm(null, null, "수정된 본문 " + random.nextInt())));
+                }
+                case DELETE -> {
+                    // 같은 글을 두 번 지우지 않도록 보내기 전에 살아 있는 목록에서 뺌
+                    id = ids.take();
+                    request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/articles/" + id))
+                            .timeout(Duration.ofSeconds(10)).DELETE().build();
+                }
+                default -> throw new IllegalStateException(route.name());
+            }
+
+            if(route == Route.CREATE){
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                status = response.statusCode();
+                if(status == 200){
+                    JsonNode created = MAPPER.readTree(response.body());
+                    ids.add(created.get("id").asLong());
+                }
+            }else{
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            }
+        }catch(IOException e){
+            status = -1;
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            status = -1;
+        }
+        stats.record(route, status, System.nanoTime() - intended);
+    }
+
+    private static HttpRequest json(String url, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static void awaitStartup(HttpClient client, String baseUrl, Process process,
+                                     List<String> command) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/articles"))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while(System.nanoTime() < deadline){
+            if(!process.isAlive()){
+                throw new IllegalStateException("server exited with " + process.exitValue() + " : " + command);
+            }
+            try{
+                if(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200){
+                    return;
+                }
+            }catch(IOException e){
+                // 아직 포트가 열리지 않음
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("server did not answer within " + STARTUP_TIMEOUT + " : " + command);
+    }
+
+    private static int freePort() throws IOException {
+        try(ServerSocket socket = new ServerSocket(0)){
+            return socket.getLocalPort();
+        }
+    }
+
+    // 살아 있는 글 id 목록. 무작위 조회, 추가, 무작위 꺼내기(삭제용)
+    static final class IdPool {
+        private long[] ids = new long[1024];
+        private int size;
+
+        synchronized void add(long id) {
+            if(this.size == this.ids.length){
+                this.ids = Arrays.copyOf(this.ids, this.size * 2);
+            }
+            this.ids[this.size++] = id;
+        }
+
+        // 비어 있으면 0(없는 id -> 서버에서 없는 글로 처리)
+        synchronized long random() {
+            return this.size == 0 ? 0 : this.ids[ThreadLocalRandom.current().nextInt(this.size)];
+        }
+
+        // 무작위로 하나를 꺼내고 마지막 id로 그 자리를 채움
+        synchronized long take() {
+            if(this.size == 0){
+                return 0;
+            }
+            int index = ThreadLocalRandom.current().nextInt(this.size);
+            long id = this.ids[index];
+            this.ids[index] = this.ids[--this.size];
+            return id;
+        }
+
+        synchronized int size() {
+            return this.size;
+        }
+    }
+
+    // 경로별 지연 시간(us) 히스토그램, 상태 코드별 수, 오류 수
+    static final class Stats {
+        private final Histogram[] latencies = new Histogram[Route.values().length];
+        private final AtomicLong[] errors = new AtomicLong[Route.values().length];
+        private final AtomicLong[] dropped = new AtomicLong[Route.values().length];
+        private final List<Map<Integer, AtomicLong>> statuses = new ArrayList<>();
+
+        Stats() {
+            for(Route route : Route.values()){
+                this.latencies[route.ordinal()] = new ConcurrentHistogram(3);
+                this.errors[route.ordinal()] = new AtomicLong();
+                this.dropped[route.ordinal()] = new AtomicLong();
+                this.statuses.add(new ConcurrentHashMap<>());
+            }
+        }
+
+        // status -1 : 연결 실패/시간 초과. 400 이상과 함께 오류로 셈
+        void record(Route route, int status, long nanos) {
+            this.latencies[route.ordinal()].recordValue(Math.max(1, nanos / 1000));
+            this.statuses.get(route.ordinal()).computeIfAbsent(status, key -> new AtomicLong()).incrementAndGet();
+            if(status < 0 || status >= 400){
+                this.errors[route.ordinal()].incrementAndGet();
+            }
+        }
+
+        void dropped(Route route) {
+            this.dropped[route.ordinal()].incrementAndGet();
+        }
+
+        Map<String, Object> toJson(int durationSeconds) {
+            Histogram all = new Histogram(3);
+            long allErrors = 0;
+            long allDropped = 0;
+
+            Map<String, Object> routes = new LinkedHashMap<>();
+            for(Route route : Route.values()){
+                Histogram histogram = this.latencies[route.ordinal()];
+                long errorCount = this.errors[route.ordinal()].get();
+                long droppedCount = this.dropped[route.ordinal()].get();
+                all.add(histogram);
+                allErrors += errorCount;
+                allDropped += droppedCount;
+
+                Map<String, Object> entry = summary(histogram, errorCount, droppedCount, durationSeconds);
+                Map<String, Long> codes = new LinkedHashMap<>();
+                this.statuses.get(route.ordinal()).entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .forEach(e -> codes.put(String.valueOf(e.getKey()), e.getValue().get()));
+                entry.put("statuses", codes);
+                routes.put(route.name().toLowerCase(), entry);
+            }
+
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("total", summary(all, allErrors, allDropped, durationSeconds));
+            json.put("routes", routes);
+            return json;
+        }
+
+        void print(int durationSeconds) {
+            System.out.printf("%-7s %9s %9s %7s %9s %9s %9s %9s%n",
+                    "route", "requests", "req/s", "errors", "p50(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+            Histogram all = new Histogram(3);
+            long allErrors = 0;
+            for(Route route : Route.values()){
+                Histogram histogram = this.latencies[route.ordinal()];
+                long errorCount = this.errors[route.ordinal()].get() + this.dropped[route.ordinal()].get();
+                all.add(histogram);
+                allErrors += errorCount;
+                printRow(route.name().toLowerCase(), histogram, errorCount, durationSeconds);
+            }
+            printRow("total", all, allErrors, durationSeconds);
+        }
+
+        private static void printRow(String name, Histogram histogram, long errors, int durationSeconds) {
+            System.out.printf("%-7s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f%n",
+                    name, histogram.getTotalCount(), (double) histogram.getTotalCount() / durationSeconds, errors,
+                    millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0);
+        }
+
+        private static Map<String, Object> summary(Histogram histogram, long errors, long dropped,
+                                                   int durationSeconds) {
+            long requests = histogram.getTotalCount() + dropped;
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("p50", millis(histogram, 50));
+            latency.put("p90", millis(histogram, 90));
+            latency.put("p99", millis(histogram, 99));
+            latency.put("p99.9", millis(histogram, 99.9));
+            latency.put("max", histogram.getMaxValue() / 1000.0);
+            latency.put("mean", histogram.getTotalCount() == 0 ? 0.0 : histogram.getMean() / 1000.0);
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("requests", requests);
+            entry.put("throughput", (double) histogram.getTotalCount() / durationSeconds);
+            entry.put("errors", errors);
+            entry.put("dropped", dropped);
+            entry.put("errorRate", requests == 0 ? 0.0 : (double) (errors + dropped) / requests);
+            entry.put("latencyMs", latency);
+            return entry;
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
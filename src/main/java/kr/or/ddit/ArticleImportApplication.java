@@ -0,0 +1,59 @@
+package kr.or.ddit;
+
+import kr.or.ddit.dto.ArticleImportResult;
+import kr.or.ddit.importer.ArticleImportFormat;
+import kr.or.ddit.importer.ArticleImporter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+글 대량 가져오기 명령줄 실행 : 웹 서버 없이 DditApplication과 같은 설정/빈으로 파일 하나를 가져오고 끝남
+ java -cp <클래스패스> kr.or.ddit.ArticleImportApplication legacy.csv --job=legacy-board --spring.profiles.active=prod,file
+ gradle importArticles -Pfile=legacy.csv -Pjob=legacy-board -Pprofiles=prod,file
+ --format=csv|ndjson 이 없으면 파일 확장자로 판단
+ 기본 설정(jdbc:h2:mem)은 끝나면 데이터가 사라지므로 file 프로필(또는 운영 DB 설정)과 함께 실행
+ 같은 --job으로 다시 실행하면 체크포인트 다음 행부터 이어서 가져옴. 실패하면 종료 코드 1
+ */
+public class ArticleImportApplication {
+
+	public static void main(String[] args) throws Exception {
+		String file = null;
+		for(String arg : args){
+			if(!arg.startsWith("--")){
+				file = arg;
+				break;
+			}
+		}
+		if(file == null){
+			System.err.println("usage : ArticleImportApplication <file.csv|file.ndjson> [--job=<name>] [--format=csv|ndjson] [spring options]");
+			System.exit(2);
+		}
+
+		SpringApplication application = new SpringApplication(DditApplication.class);
+		application.setWebApplicationType(WebApplicationType.NONE);
+
+		ArticleImportResult result;
+		try(ConfigurableApplicationContext context = application.run(args)){
+			Environment environment = context.getEnvironment();
+			Path path = Path.of(file);
+			ArticleImportFormat format = ArticleImportFormat.of(environment.getProperty("format"), path.getFileName().toString());
+			if(format == null){
+				throw new IllegalArgumentException("unknown format : " + file + " (use --format=csv|ndjson)");
+			}
+
+			String job = environment.getProperty("job", path.getFileName().toString().replaceAll("[^A-Za-z0-9._-]", "_"));
+			try(InputStream in = Files.newInputStream(path)){
+				result = context.getBean(ArticleImporter.class).importFrom(in, format, job);
+			}
+		}
+
+		System.out.println(result);
+		System.exit(result != null && result.getStatus() == ArticleImportResult.Status.COMPLETED ? 0 : 1);
+	}
+}
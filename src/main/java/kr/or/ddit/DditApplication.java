@@ -2,7 +2,11 @@ package kr.or.ddit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableAsync;
 
+@EnableAsync
+@EnableCaching
 @SpringBootApplication
 public class DditApplication {
 
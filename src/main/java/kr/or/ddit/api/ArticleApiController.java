@@ -1,22 +1,40 @@
 package kr.or.ddit.api;
 
+import jakarta.servlet.http.HttpServletRequest;
+import kr.or.ddit.change.ArticleChangeFeed;
+import kr.or.ddit.dto.ArticleBatchResult;
 import kr.or.ddit.dto.ArticleForm;
+import kr.or.ddit.dto.ArticleImportResult;
+import kr.or.ddit.dto.ArticlePage;
+import kr.or.ddit.dto.ArticleSearchResult;
 import kr.or.ddit.entity.Article;
+import kr.or.ddit.exception.ArticleVersionConflictException;
+import kr.or.ddit.importer.ArticleImportFormat;
+import kr.or.ddit.importer.ArticleImporter;
 import kr.or.ddit.repository.ArticleRepository;
 import kr.or.ddit.service.ArticleService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 // 이 클래스가 REST 컨트롤러임을 선언
 @Slf4j // lombok
 @RestController
 public class ArticleApiController {
 
+    private static final String GZIP = "gzip";
 
     // DI(의존성 주입) / IoC(제어의 역전)
 
@@ -26,23 +44,122 @@ public class ArticleApiController {
     @Autowired
     private ArticleService articleService;
 
+    @Autowired
+    private ArticleChangeFeed articleChangeFeed;
+
+    @Autowired
+    private ArticleImporter articleImporter;
+
+    // 글 상세 직렬화 캐시(article.json-cache.enabled=true 일 때만 있음)
+    @Autowired(required = false)
+    private ArticleJsonCache articleJsonCache;
+
 
+    // 요청 URI : /api/articles?after=20&limit=20
     // GET
+    // 전체 테이블을 한 번에 반환하지 않고 id 커서 기준으로 한 페이지씩 반환함
+    // 응답의 nextCursor 값을 다음 요청의 after로 넘기면 다음 페이지를 받음(null이면 마지막 페이지)
+    // 조건부 요청 : ETag는 목록 버전(커밋된 등록/수정/삭제마다 바뀜)으로 만들고, If-None-Match가 같으면
+    //  목록을 조회하지도 직렬화하지도 않고 304 Not Modified만 보냄
+    // Last-Modified는 보내지 않음 : 삭제하면 남은 글의 최종 수정 시각은 그대로이고, 초 단위라 같은 초의 두 변경을 구분하지 못함
+    //  (If-Modified-Since만 보내는 클라이언트가 예전 목록을 304로 받게 됨)
     @GetMapping("/api/articles")
-    public List<Article> index(){
-        // 메서드 수행 결과로 Article 묶음을 반환하므로
-        // 반환형이 List<Article>임
+    public ResponseEntity<ArticlePage> index(@RequestParam(value = "after", required = false) Long after,
+                             @RequestParam(value = "limit", defaultValue = "" + ArticleService.DEFAULT_PAGE_SIZE) int limit,
+                             WebRequest webRequest){
+        // 목록을 읽기 전에 버전을 먼저 읽음(그 사이 커밋된 변경은 다음 요청에서 새 ETag로 보임)
+        String etag = "\"articles-" + after + "-" + limit + "-" + this.articleService.listVersion() + "\"";
+
+        // 304이면 응답 헤더/상태는 이미 설정됨 -> null을 반환하면 본문 없이 끝남
+        if(webRequest.checkNotModified(etag)){
+            return null;
+        }
+
         // .findAll() 메서드 : DB에 저장된 모든 Article을 가져와 반환
-        // return this.articleRepository.findAll();
-        return this.articleService.index();
+        // return this.articleService.index();
+        return ResponseEntity.status(HttpStatus.OK).body(this.articleService.index(after, limit));
+
+    }
+
+    // 요청 URI : /api/articles/export
+    // GET
+    // 전체 글을 NDJSON(application/x-ndjson)으로 스트리밍. 야간 동기화 작업용
+    // StreamingResponseBody는 별도 스레드에서 실행되며, DB에서 읽는 즉시 응답으로 내보냄
+    @GetMapping(value = "/api/articles/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(){
+        StreamingResponseBody body = out -> {
+            long count = this.articleService.export(out);
+            log.info("export->count : {}", count);
+        };
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // 요청 URI : /api/articles/3/content
+    // GET
+    // 글 내용만 text/plain으로 스트리밍. DB의 압축된 내용을 읽으면서 풀어서 바로 응답으로 내보냄
+    // (수 MB짜리 글도 서버에서 내용 전체를 문자열로 만들지 않음). 없는 글이면 404
+    @GetMapping(value = "/api/articles/{id}/content", produces = "text/plain;charset=UTF-8")
+    public ResponseEntity<StreamingResponseBody> content(@PathVariable(value = "id") long id){
+        if(!this.articleRepository.existsById(id)){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        // 확인한 뒤 응답을 쓰기 전에 삭제되면 빈 본문
+        StreamingResponseBody body = out -> this.articleService.writeContent(id, out);
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(body);
+    }
+
+    // 요청 URI : /api/articles/changes
+    // GET (text/event-stream)
+    // 글 등록/수정/삭제 변경 피드(SSE). 목록을 다시 폴링하지 않고 바뀐 글만 알림으로 받음
+    // 이벤트 : article {"seq":..,"type":"UPDATED","id":1,"version":2,"timestamp":".."}
+    // 다시 연결할 때 Last-Event-ID 헤더(EventSource가 자동으로 보냄)를 주면 그 다음 변경부터 이어서 받음
+    @GetMapping(value = "/api/articles/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId){
+        log.info("changes->lastEventId : {}", lastEventId);
 
+        return this.articleChangeFeed.subscribe(lastEventId);
+    }
+
+    // 요청 URI : /api/articles/search?q=여행&page=0&size=20
+    // GET
+    // 제목/내용 전문 검색(역색인). 점수가 높은 순으로 한 페이지씩 반환
+    // (page + 1) * size가 ArticleService.MAX_SEARCH_WINDOW를 넘으면 400
+    @GetMapping("/api/articles/search")
+    public ResponseEntity<ArticleSearchResult> search(@RequestParam(value = "q") String query,
+                                      @RequestParam(value = "page", defaultValue = "0") int page,
+                                      @RequestParam(value = "size", defaultValue = "" + ArticleService.DEFAULT_PAGE_SIZE) int size){
+        log.info("search->q : {}", query);
+
+        ArticleSearchResult result = this.articleService.search(query, page, size);
+
+        return (result != null)?
+                ResponseEntity.status(HttpStatus.OK).body(result):
+                ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+    }
+
+    // 요청 URI : /api/articles/cache/stats
+    // GET
+    // 글 상세 캐시의 적중(hit)/실패(miss)/제거(eviction) 횟수
+    @GetMapping("/api/articles/cache/stats")
+    public Map<String, Object> cacheStats(){
+        return this.articleService.cacheStats();
     }
 
     // 요청 URI : /api/articles/1
     // GET
     // 하나의 글 가져오기. 조회하려는 게시글의 id에 따라 URL 요청이 바뀜
+    // ETag("id-version")/Last-Modified를 함께 보냄. If-None-Match가 같으면 스프링이 본문을 직렬화하지 않고 304로 응답
+    // 직렬화 캐시가 켜져 있으면 미리 만든 JSON 바이트를 그대로 보내고, Accept-Encoding에 gzip이 있으면 미리 압축한 본문을 보냄
     @GetMapping("/api/articles/{id}")
-    public Article show(@PathVariable(value = "id") Long id){
+    public ResponseEntity<?> show(@PathVariable(value = "id") Long id,
+                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding){
         log.info("show->id " + id);
 
         // 메서드 수행 결과로 단일 Article을 반환하므로 메서드의 반환형을 Article로 처리
@@ -53,8 +170,32 @@ public class ArticleApiController {
         // PathVariable 애너테이션을 붙임
         // return this.articleRepository.findById(id).orElse(null);
         Article article = this.articleService.show(id);
+        if(article == null){
+            return ResponseEntity.status(HttpStatus.OK).body(null);
+        }
+
+        if(this.articleJsonCache == null){
+            return ResponseEntity.status(HttpStatus.OK)
+                    .eTag(etag(article))
+                    .lastModified(article.getLastModified())
+                    .body(article);
+        }
 
-        return article;
+        ArticleJsonCache.Entry entry = this.articleJsonCache.get(article);
+        boolean gzip = entry.gzip() != null && acceptsGzip(acceptEncoding);
+
+        // 압축본과 원본은 바이트가 다르므로 ETag도 구분(강한 ETag)
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .eTag(gzip ? etag(article, GZIP) : etag(article))
+                .lastModified(article.getLastModified());
+        if(gzip){
+            // Content-Encoding이 있으면 Tomcat(server.compression)이 다시 압축하지 않음
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+            return response.body(entry.gzip());
+        }
+        return response.body(entry.json());
     }
 
     /*
@@ -100,8 +241,11 @@ public class ArticleApiController {
     여기에 서비스 계층을 추가해서 컨트롤러, 서비스, 리파지터리의 역할을 분업해보자.
     */
 
+    // If-Match : 클라이언트가 읽었던 글의 ETag. 있으면 그 버전일 때만 수정하고, 다르면 412 Precondition Failed
+    //  (두 사람이 같은 글을 동시에 고쳐도 나중 요청이 앞 요청을 모르고 덮어쓰지 않음)
     @PatchMapping("/api/articles/{id}")
     public ResponseEntity<Article> update(@PathVariable(value="id") Long id,
+                          @RequestHeader(value = "If-Match", required = false) String ifMatch,
                           @RequestBody ArticleForm dto){
 
         /*
@@ -140,16 +284,37 @@ public class ArticleApiController {
         */
 
 
+        // 본문에 id가 없으면 URL의 id를 사용. 둘 다 있는데 서로 다르면 잘못된 요청(400)
+        if(dto.getId() == null){
+            dto.setId(id);
+        }
+        if(!id.equals(dto.getId())){
+            log.info("update->잘못된 요청! id : {}, dto : {}", id, dto);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        // If-Match가 있으면 본문의 version보다 우선
+        if(ifMatch != null && !"*".equals(ifMatch.trim())){
+            dto.setVersion(versionOf(id, ifMatch));
+        }
+
         // (대상 엔티티가 있으면 수정 내용으로 업데이트하고 정상 응답(200) 보내기
         // article 엔티티에 담긴 수정용 데이터를 DB에 저장 후 updated라는 이름의 변수에 저장
         // Article updated = this.articleRepository.save(target);
         Article updated = this.articleService.update(dto);
-        log.info("updated : ", updated);
+        log.info("updated : {}", updated);
+
+        // 대상 글이 없으면 404
+        if(updated == null){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
 
         // 정상 응답
         // 수정된 데이터는 ResponseEntity에 담아서 보냄. 이 때 상태(status)에는 장상 응답이므로
         // 200 또는 HttpStatus.OK를 싣고, 본문(body)에는 반환할 데이터인 updated를 실음.
-        return ResponseEntity.status(HttpStatus.OK).body(updated);
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(etag(updated))
+                .lastModified(updated.getLastModified())
+                .body(updated);
     }
 
     // DELETE
@@ -197,8 +362,11 @@ public class ArticleApiController {
     public ResponseEntity<Article> delete(@PathVariable(value="id")long id){
         log.info("delete->id : {}", id);
 
-        // article = target
-        Article deleted = this.articleService.delete(id);
+        // 삭제할 글이 없으면 404
+        boolean deleted = this.articleService.delete(id);
+        if(!deleted){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
 
         // return ResponseEntity.status(HttpStatus.OK).body(null);
         // return 문에 body(null) 대신 build()를 작성해도 됨. ResponseEntity의 build() 메서드는
@@ -207,4 +375,121 @@ public class ArticleApiController {
         return ResponseEntity.status(HttpStatus.OK).build();
     }
 
+    /*
+    요청 URI : /api/articles/batch
+    요청 파라미터 : JSON 배열 [{"title":"제목1","content":"내용1"}, {"title":"제목2","content":"내용2"}]
+    요청 방식 : post(등록) / patch(수정, id 필수) / delete(삭제, id 배열 [1,2,3])
+
+    한 요청의 항목들을 하나의 트랜잭션에서 JDBC 배치로 처리하고 항목별 결과를 반환함
+     */
+    @PostMapping("/api/articles/batch")
+    public ResponseEntity<List<ArticleBatchResult>> createAll(@RequestBody List<ArticleForm> forms){
+        log.info("createAll->size : {}", forms.size());
+
+        return ResponseEntity.status(HttpStatus.OK).body(this.articleService.createAll(forms));
+    }
+
+    @PatchMapping("/api/articles/batch")
+    public ResponseEntity<List<ArticleBatchResult>> updateAll(@RequestBody List<ArticleForm> forms){
+        log.info("updateAll->size : {}", forms.size());
+
+        return ResponseEntity.status(HttpStatus.OK).body(this.articleService.updateAll(forms));
+    }
+
+    @DeleteMapping("/api/articles/batch")
+    public ResponseEntity<List<ArticleBatchResult>> deleteAll(@RequestBody List<Long> ids){
+        log.info("deleteAll->size : {}", ids.size());
+
+        return ResponseEntity.status(HttpStatus.OK).body(this.articleService.deleteAll(ids));
+    }
+
+    /*
+    요청 URI : /api/articles/import?format=csv&job=legacy-board
+    요청 본문 : CSV(text/csv) 또는 NDJSON(application/x-ndjson) 파일 내용 그대로(multipart 아님)
+    요청 방식 : post
+
+    본문을 다 받기 전에 읽는 대로 batch-size 행씩 등록함(ArticleImporter). format이 없으면 Content-Type으로 판단
+    같은 job으로 다시 올리면 이전에 처리한 행은 건너뛰고 이어서 가져옴
+    형식을 모르면 400, 같은 job이 실행 중이면 409, 도중에 실패하면 500(커밋된 곳까지의 결과를 본문에 담음)
+     */
+    @PostMapping("/api/articles/import")
+    public ResponseEntity<ArticleImportResult> importArticles(@RequestParam(value = "format", required = false) String format,
+                                                              @RequestParam(value = "job", required = false) String job,
+                                                              HttpServletRequest request) throws IOException {
+        ArticleImportFormat importFormat = ArticleImportFormat.of(format, request.getContentType());
+        log.info("importArticles->format : {}, job : {}", importFormat, job);
+        if(importFormat == null){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        ArticleImportResult result = this.articleImporter.importFrom(request.getInputStream(), importFormat, job);
+        if(result == null){
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return (result.getStatus() == ArticleImportResult.Status.COMPLETED)?
+                ResponseEntity.status(HttpStatus.OK).body(result):
+                ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result);
+    }
+
+    // 가져오기 진행 상황(마지막 체크포인트). 없는 job이면 404
+    @GetMapping("/api/articles/import/{job}")
+    public ResponseEntity<ArticleImportResult> importProgress(@PathVariable(value = "job") String job) throws IOException {
+        ArticleImportResult result = this.articleImporter.progress(job);
+
+        return (result != null)?
+                ResponseEntity.status(HttpStatus.OK).body(result):
+                ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+
+    // 글의 강한(strong) ETag : "id-version"
+    private static String etag(Article article) {
+        return "\"" + article.getId() + "-" + article.getVersion() + "\"";
+    }
+
+    // 압축본 ETag : "id-version-gzip"
+    private static String etag(Article article, String encoding) {
+        return "\"" + article.getId() + "-" + article.getVersion() + "-" + encoding + "\"";
+    }
+
+    // Accept-Encoding에 gzip(또는 *)이 있고 q=0이 아니면 true
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if(acceptEncoding == null){
+            return false;
+        }
+        for(String token : acceptEncoding.split(",")){
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim();
+            if(!GZIP.equalsIgnoreCase(coding) && !"*".equals(coding)){
+                continue;
+            }
+            for(int i = 1; i < parts.length; i++){
+                String param = parts[i].trim();
+                if(param.startsWith("q=") && param.substring(2).matches("0(\\.0*)?")){
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // If-Match 값("id-version")에서 버전을 꺼냄. 약한 ETag(W/)이거나 다른 글의 ETag, 형식이 틀리면 412
+    private static Long versionOf(Long id, String ifMatch) {
+        String tag = ifMatch.trim();
+        // 압축본 ETag("id-version-gzip")도 같은 버전으로 봄
+        String gzipSuffix = "-" + GZIP + "\"";
+        if(tag.endsWith(gzipSuffix)){
+            tag = tag.substring(0, tag.length() - gzipSuffix.length()) + "\"";
+        }
+        String prefix = "\"" + id + "-";
+        if(tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1){
+            try{
+                return Long.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+            }catch(NumberFormatException e){
+                // 아래에서 412
+            }
+        }
+        throw new ArticleVersionConflictException("If-Match " + ifMatch + " does not match article " + id);
+    }
+
 }
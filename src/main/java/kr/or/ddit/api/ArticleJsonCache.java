@@ -0,0 +1,108 @@
+package kr.or.ddit.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import kr.or.ddit.change.ArticleChangedEvent;
+import kr.or.ddit.entity.Article;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/*
+글 상세 응답(GET /api/articles/{id})의 직렬화 결과 캐시 : article.json-cache.enabled=true 일 때만 등록됨
+ 인기 글은 같은 Article을 요청마다 Jackson으로 다시 직렬화하므로, 글 id별로 UTF-8 JSON 바이트와
+ gzip으로 미리 압축한 바이트를 보관해 두고 그대로 응답함(Accept-Encoding에 gzip이 있으면 압축본)
+ - 항목은 글 버전(version)과 함께 저장. 요청한 글의 버전과 다르면 새로 만들어 교체하므로 예전 본문을 주는 일이 없음
+ - 등록/수정/삭제 이벤트(ArticleChangedEvent)를 받으면 해당 글 항목을 지움(메모리 정리)
+ - 크기 제한은 바이트 합계(article.json-cache.max-bytes), 메트릭 : cache.* (cache=article.json)
+ */
+@Component
+@ConditionalOnProperty(prefix = "article.json-cache", name = "enabled", havingValue = "true")
+public class ArticleJsonCache {
+
+    // 이보다 작은 JSON은 압축해도 거의 줄지 않으므로 압축본을 만들지 않음
+    private static final int MIN_COMPRESS_SIZE = 512;
+
+    @Value("${article.json-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<Long, Entry> cache;
+
+    // 캐시 항목 : 글 버전, JSON 바이트, gzip 바이트(압축해도 작아지지 않으면 null)
+    public record Entry(Long version, byte[] json, byte[] gzip) {
+
+        int weight() {
+            return this.json.length + ((this.gzip == null) ? 0 : this.gzip.length);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(this.maxBytes)
+                .weigher((Long id, Entry entry) -> entry.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(this.meterRegistry, this.cache, "article.json");
+    }
+
+    // 글의 직렬화 결과(같은 버전이면 캐시에 있는 것을 그대로 씀)
+    public Entry get(Article article) {
+        Entry entry = this.cache.getIfPresent(article.getId());
+        if(entry != null && Objects.equals(entry.version(), article.getVersion())){
+            return entry;
+        }
+
+        entry = serialize(article);
+        this.cache.put(article.getId(), entry);
+        return entry;
+    }
+
+    // 글이 바뀌면(커밋 후) 항목 제거
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ArticleChangedEvent event) {
+        this.cache.invalidate(event.id());
+    }
+
+    private Entry serialize(Article article) {
+        try{
+            byte[] json = this.objectMapper.writeValueAsBytes(article);
+            byte[] gzip = (json.length < MIN_COMPRESS_SIZE) ? null : gzip(json);
+            if(gzip != null && gzip.length >= json.length){
+                gzip = null;
+            }
+            return new Entry(article.getVersion(), json, gzip);
+        }catch(JsonProcessingException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try(GZIPOutputStream gzip = new GZIPOutputStream(out)){
+            gzip.write(bytes);
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
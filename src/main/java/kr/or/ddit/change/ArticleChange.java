@@ -0,0 +1,8 @@
+package kr.or.ddit.change;
+
+import java.time.Instant;
+
+// 변경 피드(/api/articles/changes)로 내보내는 한 건
+// seq : 서버가 붙이는 순번(1부터 1씩 증가). SSE의 id로 보내므로 다시 연결할 때 Last-Event-ID로 돌아옴
+public record ArticleChange(long seq, ArticleChangedEvent.Type type, Long id, Long version, Instant timestamp) {
+}
@@ -0,0 +1,30 @@
+package kr.or.ddit.change;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+글 변경 카운터 : 커밋된 글 등록/수정/삭제(ArticleChangedEvent)마다 1씩 올림. 목록 응답의 ETag용
+- 집계 쿼리(count/max/sum)는 version, last_modified에 인덱스가 없어서 테이블 전체를 읽고,
+  쿼리 캐시도 쓰기마다 비워지므로 쓰기가 있으면 목록 요청마다 다시 전체를 읽게 됨 -> 메모리의 값 하나로 바꿈
+- 삭제도 올리므로 삭제 후에 예전 목록이 304로 나가지 않음
+- 재기동 후에도 예전 값과 겹치지 않도록 기동 시각(ms) * 1000 부터 시작(ArticleChangeLog의 순번과 같은 방식)
+- 커밋 후에 올리므로 목록을 읽기 전에 값을 먼저 읽으면 ETag가 본문보다 새로울 일은 없음
+ */
+@Component
+public class ArticleChangeCounter {
+
+    private final AtomicLong value = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    // 트랜잭션 안에서 발행되면 커밋 후에, 트랜잭션 밖이면 바로 올림
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ArticleChangedEvent event) {
+        this.value.incrementAndGet();
+    }
+
+    public long current() {
+        return this.value.get();
+    }
+}
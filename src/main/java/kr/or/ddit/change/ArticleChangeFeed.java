@@ -0,0 +1,262 @@
+package kr.or.ddit.change;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+글 변경 피드(SSE, GET /api/articles/changes)
+- ArticleService가 발행한 ArticleChangedEvent를 커밋 후에 받아(롤백된 변경은 보내지 않음) 순번을 붙이고
+  링 버퍼(ArticleChangeLog)에 보관한 뒤 모든 구독자에게 보냄
+- 다시 연결한 클라이언트는 Last-Event-ID 다음 변경부터 버퍼에서 다시 받음.
+  버퍼에 없는 구간이면 reset 이벤트를 보냄 -> 클라이언트는 목록을 처음부터 다시 읽어야 함
+- 구독자 하나는 SseEmitter(서블릿 비동기 응답) 하나뿐이고 스레드를 잡고 있지 않음 -> 쉬고 있는 구독자가 수천 명이어도 가벼움
+- 버퍼/구독은 dispatcher 스레드 하나에서 순서대로 처리함 -> 잠금 없이도 재전송과 새 변경 사이에 빠지거나 겹치는 이벤트가 없음
+- dispatcher는 보내지 않고 구독자별 보낼 큐(최대 subscriber-queue-size)에 넣기만 함(막히지 않음)
+  실제 전송(SseEmitter.send는 소켓에 쓸 때까지 막힘)은 구독자마다 가상 스레드 하나가 큐를 비우며 함
+  -> 느린 구독자 하나가 다른 구독자나 글 수정 요청을 늦추지 않음
+- 큐가 가득 찬 구독자(따라오지 못함)는 연결을 끊음. 클라이언트(EventSource)가 Last-Event-ID로 다시 연결하면
+  버퍼에서 이어 받거나 reset을 받음
+- 연결이 끊긴 구독자를 찾아내도록 heartbeat 주기마다 주석(:) 한 줄을 보냄
+- 메트릭 : article.changes.subscribers, article.changes.published, article.changes.dropped(따라오지 못해 끊은 구독자 수)
+ */
+@Slf4j
+@Component
+public class ArticleChangeFeed {
+
+    // SSE 이벤트 이름
+    public static final String EVENT_CHANGE = "article";
+    public static final String EVENT_RESET = "reset";
+
+    @Value("${article.changes.buffer-size:4096}")
+    private int bufferSize;
+
+    // 구독 한 번의 최대 유지 시간(ms). 끝나면 클라이언트(EventSource)가 Last-Event-ID로 자동 재연결함
+    @Value("${article.changes.timeout:1800000}")
+    private long timeout;
+
+    @Value("${article.changes.heartbeat:15000}")
+    private long heartbeat;
+
+    // 구독자 하나에 쌓아 둘 수 있는 보내지 못한 이벤트 수(일괄 수정처럼 한 번에 몰리는 변경도 담을 만큼)
+    @Value("${article.changes.subscriber-queue-size:1024}")
+    private int subscriberQueueSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService dispatcher;
+
+    // 전송 작업용(작업마다 가상 스레드). 소켓에 쓰는 동안 막혀도 플랫폼 스레드를 잡지 않음
+    private ExecutorService sender;
+
+    private ArticleChangeLog changeLog;
+
+    private Counter publishedCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void init() {
+        // 재기동 후에도 순번이 줄어들지 않도록 기동 시각(ms) * 1000 부터 시작
+        this.changeLog = new ArticleChangeLog(this.bufferSize, System.currentTimeMillis() * 1000);
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "article-changes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher.scheduleWithFixedDelay(this::sendHeartbeat, this.heartbeat, this.heartbeat, TimeUnit.MILLISECONDS);
+        this.sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("article-changes-send-", 0).factory());
+
+        Gauge.builder("article.changes.subscribers", this.subscribers, Set::size)
+                .register(this.meterRegistry);
+        this.publishedCounter = Counter.builder("article.changes.published")
+                .register(this.meterRegistry);
+        this.droppedCounter = Counter.builder("article.changes.dropped")
+                .register(this.meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        this.dispatcher.shutdownNow();
+        for(Subscriber subscriber : this.subscribers){
+            if(subscriber.closed.compareAndSet(false, true)){
+                subscriber.emitter.complete();
+            }
+        }
+        this.subscribers.clear();
+        this.sender.shutdownNow();
+    }
+
+    // 트랜잭션 안에서 발행되면 커밋 후에, 트랜잭션 밖(쓰기 지연 저장 등)이면 바로 처리
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ArticleChangedEvent event) {
+        this.dispatcher.execute(() -> {
+            ArticleChange change = this.changeLog.append(event);
+            this.publishedCounter.increment();
+            // 이벤트는 한 번만 만들어서 모든 구독자가 같이 씀
+            Set<ResponseBodyEmitter.DataWithMediaType> data = changeEvent(change);
+            for(Subscriber subscriber : this.subscribers){
+                offer(subscriber, data);
+            }
+        });
+    }
+
+    // 구독 시작. lastEventId가 있으면 그 다음 변경부터 다시 보내고 이어서 새 변경을 보냄
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(this.timeout);
+        Subscriber subscriber = new Subscriber(emitter, this.subscriberQueueSize);
+        // 이미 끝난 연결이므로 complete는 부르지 않고 목록에서만 뺌
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        this.dispatcher.execute(() -> {
+            if(lastEventId != null){
+                List<ArticleChange> missed = this.changeLog.since(lastEventId);
+                // 놓친 변경이 보낼 큐보다 많으면 하나씩 보내는 대신 전체를 다시 읽게 함
+                if(missed == null || missed.size() > this.subscriberQueueSize){
+                    offer(subscriber, resetEvent());
+                }else{
+                    for(ArticleChange change : missed){
+                        offer(subscriber, changeEvent(change));
+                    }
+                }
+            }
+            if(!subscriber.closed.get()){
+                this.subscribers.add(subscriber);
+            }
+        });
+
+        return emitter;
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> changeEvent(ArticleChange change) {
+        return SseEmitter.event()
+                .id(String.valueOf(change.seq()))
+                .name(EVENT_CHANGE)
+                .data(change, MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    // 놓친 변경을 재전송할 수 없음 -> 현재 순번을 id로 주고 전체를 다시 읽으라고 알림
+    private Set<ResponseBodyEmitter.DataWithMediaType> resetEvent() {
+        return SseEmitter.event()
+                .id(String.valueOf(this.changeLog.lastSeq()))
+                .name(EVENT_RESET)
+                .data(this.changeLog.lastSeq())
+                .build();
+    }
+
+    private void sendHeartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> data = SseEmitter.event().comment("heartbeat").build();
+        for(Subscriber subscriber : this.subscribers){
+            offer(subscriber, data);
+        }
+    }
+
+    // 구독자의 큐에 넣고, 전송 작업이 돌고 있지 않으면 시작함(구독자마다 전송 작업은 하나뿐 -> 순서 유지)
+    // 큐가 가득 찼으면 따라오지 못하는 구독자이므로 끊음. 막히지 않음(dispatcher에서 호출)
+    private void offer(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> data) {
+        if(subscriber.closed.get()){
+            return;
+        }
+        if(!subscriber.outbound.offer(data)){
+            this.droppedCounter.increment();
+            log.warn("offer->subscriber fell behind ({} events queued), closing", subscriber.outbound.size());
+            close(subscriber);
+            return;
+        }
+        if(subscriber.draining.compareAndSet(false, true)){
+            try{
+                this.sender.execute(() -> drain(subscriber));
+            }catch(RejectedExecutionException e){
+                // 종료 중
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    // 전송 작업 : 큐가 빌 때까지 보냄. 보내기 실패(연결 끊김)면 구독 해제
+    private void drain(Subscriber subscriber) {
+        do{
+            Set<ResponseBodyEmitter.DataWithMediaType> data;
+            while(!subscriber.closed.get() && (data = subscriber.outbound.poll()) != null){
+                try{
+                    subscriber.emitter.send(data);
+                }catch(IOException | IllegalStateException e){
+                    close(subscriber);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // draining을 내린 사이에 offer가 넣은 이벤트가 있으면 이어서 보냄(작업을 새로 띄우지 못했을 수 있음)
+        }while(!subscriber.closed.get() && !subscriber.outbound.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    // 구독 해제하고 연결을 끝냄. 여러 번 불려도 됨
+    // complete는 진행 중인 send가 끝나기를 기다릴 수 있으므로 dispatcher가 아니라 전송용 스레드에서 함
+    private void close(Subscriber subscriber) {
+        if(!remove(subscriber)){
+            return;
+        }
+        try{
+            this.sender.execute(subscriber.emitter::complete);
+        }catch(RejectedExecutionException e){
+            // 종료 중 : shutdown이 정리함
+        }
+    }
+
+    // 구독 목록에서만 뺌. 이미 빠졌으면 false
+    private boolean remove(Subscriber subscriber) {
+        if(!subscriber.closed.compareAndSet(false, true)){
+            return false;
+        }
+        this.subscribers.remove(subscriber);
+        subscriber.outbound.clear();
+        return true;
+    }
+
+    // 구독자 하나 : SseEmitter와 보낼 이벤트 큐
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> outbound;
+
+        // 전송 작업이 돌고 있는지
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, int queueSize) {
+            this.emitter = emitter;
+            // 쉬고 있는 구독자가 많으므로 미리 배열을 잡지 않는 연결 리스트 큐
+            this.outbound = new LinkedBlockingQueue<>(queueSize);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package kr.or.ddit.change;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+최근 변경 capacity 건을 보관하는 고정 크기 링 버퍼
+- append 할 때마다 순번(seq)을 1씩 올려 붙이고, 가득 차면 가장 오래된 것을 덮어씀
+- 순번은 startSeq 다음부터 시작. 서버를 재기동하면 startSeq를 더 크게 주어서(기동 시각 기반)
+  예전 서버의 순번을 들고 다시 연결한 클라이언트가 새 서버의 다른 변경을 받지 않게 함
+- since(lastSeq) : lastSeq 다음 변경부터 돌려줌. 이미 덮어써진 구간이 필요하면 null(클라이언트가 전체를 다시 읽어야 함)
+스레드 안전하지 않음 : ArticleChangeFeed의 dispatcher 스레드 하나에서만 사용
+ */
+public class ArticleChangeLog {
+
+    private final ArticleChange[] buffer;
+
+    // 이 로그가 붙이는 첫 순번 - 1
+    private final long startSeq;
+
+    // 마지막으로 붙인 순번(아직 없으면 startSeq)
+    private long lastSeq;
+
+    public ArticleChangeLog(int capacity, long startSeq) {
+        this.buffer = new ArticleChange[Math.max(capacity, 1)];
+        this.startSeq = startSeq;
+        this.lastSeq = startSeq;
+    }
+
+    public ArticleChange append(ArticleChangedEvent event) {
+        long seq = ++this.lastSeq;
+        ArticleChange change = new ArticleChange(seq, event.type(), event.id(), event.version(), Instant.now());
+        this.buffer[slot(seq)] = change;
+        return change;
+    }
+
+    // lastSeq 이후의 변경(오래된 순). 버퍼에 남아 있지 않은 구간이 있으면 null
+    public List<ArticleChange> since(long lastSeq) {
+        if(lastSeq == this.lastSeq){
+            return List.of();
+        }
+        // 서버에 없는 순번(재기동 전 순번 또는 이미 덮어쓴 구간) -> 처음부터 다시 읽어야 함
+        if(lastSeq > this.lastSeq || lastSeq < oldestSeq() - 1){
+            return null;
+        }
+
+        List<ArticleChange> changes = new ArrayList<>((int) (this.lastSeq - lastSeq));
+        for(long seq = lastSeq + 1; seq <= this.lastSeq; seq++){
+            changes.add(this.buffer[slot(seq)]);
+        }
+        return changes;
+    }
+
+    public long lastSeq() {
+        return this.lastSeq;
+    }
+
+    // 버퍼에 남아 있는 가장 오래된 순번
+    private long oldestSeq() {
+        return Math.max(this.startSeq + 1, this.lastSeq - this.buffer.length + 1);
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % this.buffer.length);
+    }
+}
@@ -0,0 +1,18 @@
+package kr.or.ddit.change;
+
+import kr.or.ddit.entity.Article;
+
+// 글 등록/수정/삭제 이벤트(ArticleService가 발행 -> 커밋 후 ArticleChangeFeed가 구독자에게 전달, ArticleSearchIndex가 색인 갱신)
+// 네이티브 쿼리/JDBC로 바뀌는 경로도 있어서 JPA 엔티티 리스너 대신 서비스에서 직접 발행함
+// version : 변경 후 글의 버전(삭제는 null)
+// article : 변경 후 글(제목/내용까지 채운 영속 상태가 아닌 객체, 색인용). 삭제는 null
+public record ArticleChangedEvent(Type type, Long id, Long version, Article article) {
+
+    public ArticleChangedEvent(Type type, Long id, Long version) {
+        this(type, id, version, null);
+    }
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -1,19 +1,21 @@
 package kr.or.ddit.controller;
 
 import kr.or.ddit.dto.ArticleForm;
+import kr.or.ddit.dto.ArticleSummary;
 import kr.or.ddit.entity.Article;
 import kr.or.ddit.repository.ArticleRepository;
+import kr.or.ddit.service.ArticleService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.ArrayList;
-
 //1. 컨트롤러 선언 : 이 파일이 컨트롤러임을 선언
 @Slf4j
 
@@ -38,6 +40,10 @@ public class ArticleController {
     @Autowired
     private ArticleRepository articleRepository;
 
+    // 조회/등록/수정/삭제는 서비스를 거쳐야 글 캐시(ArticleService.show)가 함께 갱신됨
+    @Autowired
+    private ArticleService articleService;
+
     //2. URL 요청 접수(/articles/new)
     //뷰 페이지를 보여 주기 위해 newArticleForm() 메서드를 추가함
 
@@ -77,8 +83,8 @@ public class ArticleController {
         // createArticle->article(Entity는 DB) : Article{id=null, title='제목', content='내용'}
         log.info("(전)createArticle->article(Entity는 DB) : "+article.toString());
         // Article a = this.articleRepository.findById(2).orElse(null);
-        // 2. 리파지터리로 엔티티를 DB에 저장
-        Article saved = this.articleRepository.save(article);
+        // 2. 서비스(리파지터리)로 엔티티를 DB에 저장
+        Article saved = this.articleService.create(article);
         // createArticle->article(Entity는 DB) : Article{id=null, title='제목', content='내용'}
         log.info("(후)createArticle->article(Entity는 DB) : "+article.toString());
 
@@ -111,7 +117,8 @@ public class ArticleController {
         // orElse(null) : id 값으로 데이터를 찾을 때 해당 id 값이 없으면 null을 반환.
         // 데이터를 조회한 결과, 값이 있으면 articleEntity 변수에 값을 넣고 없으면
         //  null을 저장                DB.util.selectOne(id)
-        Article articleEntity = articleRepository.findById(id).orElse(null);
+        // 서비스를 거치면 캐시에 있는 글은 DB를 조회하지 않음
+        Article articleEntity = this.articleService.show(id);
 
 
         // 2. 모델에 데이터 등록하기
@@ -125,31 +132,34 @@ public class ArticleController {
     }
 
     /*
-    요청 URI : /articles
-    요청 파라미터 :
+    요청 URI : /articles?page=0&size=20
+    요청 파라미터 : page(0부터 시작), size(한 페이지 글 수)
     요청 방식 : get
      */
     @GetMapping("/articles")
-    public String index(Model model){
+    public String index(@RequestParam(value = "page", defaultValue = "0") int page,
+                        @RequestParam(value = "size", defaultValue = "" + ArticleService.DEFAULT_PAGE_SIZE) int size,
+                        Model model){
         // p.134
-        // 1. 모든 데이터(DB, 레퍼지터리, 엔티티)를 가져오기
-        // findAll() 메서드의 반환 타입은 Iterable. List로 받아야 함.
-        // 캐스팅(형변환)이 필요. Iterable->Collection->List 인터페이스의 상하 관계
-        ArrayList<Article> articleEntityList = (ArrayList<Article>) this.articleRepository.findAll();  // Iterator
-
-         /* [는 List를 말함, {는 엔티티(Article)/1행
-        [
-            Article{id=1, title='1', content='11'},
-            Article{id=2, title='2', content='22'},
-            Article{id=3, title='3', content='33'}
-        ]
-         */
-        log.info("index->articleEntityList: "+articleEntityList);
-
+        // 1. 한 페이지 데이터만 가져오기
+        // 예전에는 findAll()로 모든 데이터를 가져왔지만, 글이 많아지면 응답 시간과 크기가
+        //  글 수에 비례해서 커지므로 한 페이지(size건)만 조회함
+        // 목록에는 내용이 필요 없으므로 id, 제목만 조회(ArticleSummary). 내용은 상세/수정 화면에서만 읽음
+        Slice<ArticleSummary> articleSlice = this.articleService.page(page, size);
 
+        // 목록 전체를 문자열로 만드는 로그는 요청마다 비용이 크므로 페이지 정보만 debug로 남김
+        log.debug("index->page : {}, size : {}, count : {}",
+                articleSlice.getNumber(), articleSlice.getSize(), articleSlice.getNumberOfElements());
 
         // 2. 모델에 데이터를 등록하기
-        model.addAttribute("articleList", articleEntityList);
+        model.addAttribute("articleList", articleSlice.getContent());
+        // 이전/다음 링크용 페이지 정보
+        model.addAttribute("pageNumber", articleSlice.getNumber() + 1);
+        model.addAttribute("size", articleSlice.getSize());
+        model.addAttribute("hasPrevious", articleSlice.hasPrevious());
+        model.addAttribute("prevPage", articleSlice.getNumber() - 1);
+        model.addAttribute("hasNext", articleSlice.hasNext());
+        model.addAttribute("nextPage", articleSlice.getNumber() + 1);
 
         // 3. 뷰페이지 설정하기(forwarding)
         // articles 디렉터리 안에 index.mustache 파일이 목록의 뷰 페이지로 설정
@@ -171,7 +181,7 @@ public class ArticleController {
         // DB에서 데이터를 가져올 때는 리파지터리를 이용
         // 만약 데이터를 찾지 못하면 null을 반환, 데이터를
         // 찾았다면 Article 타입의 articleEntity로 작성
-        Article articleEntity = this.articleRepository.findById(id).orElse(null);
+        Article articleEntity = this.articleService.show(id);
         log.info("edit->articleEntity : " + articleEntity);
 
         // 3. 모델에 데이터 등록하기
@@ -204,15 +214,11 @@ public class ArticleController {
         log.info("update->articleEntity : " + articleEntity); // 찍어보기
 
         // 2. 엔티티를 DB에 저장
-        // 2-1. DB에서 기존 데이터 가져오기(리파지터리의 도움받기)
-        Article target = this.articleRepository.findById(articleEntity.getId()).orElse(null); // 데이터가 없을 경우, null 처리
+        // 서비스가 기존 데이터 조회(없으면 null) 및 갱신, 캐시 무효화까지 처리
+        Article target = this.articleService.update(form);
 
         // Article{id=1, title=즐거운 여행, content=개똥이의 여행}
         log.info("update->target : " + target);
-        // 2-2. 기존 데이터 값을 갱신하기
-        if(target != null){
-            this.articleRepository.save(articleEntity); // 엔티티를 DB에 저장
-        }
 
         // 3. 수정 결과 페이지로 리다이렉트(/articles/1)
 
@@ -232,15 +238,13 @@ public class ArticleController {
 
         log.info("delete->id : "+id);
 
-        // 1) 삭제할 대상 가져오기((3번(엔티티)->this.리파지터리->DB)
-        Article target = this.articleRepository.findById(id).orElse(null);
-        log.info("delete->target : " + target);
+        // 1) 대상 엔티티 삭제하기(this.서비스->리파지터리->DB)
+        // 서비스가 DELETE 한 번으로 삭제하고, 대상이 없으면 false를 반환
+        boolean deleted = this.articleService.delete(id);
+        log.info("delete->deleted : " + deleted);
 
-        // 2) 대상 엔티티 삭제하기(this.리파지터리->DB)
-        // 삭제할 대상이 있는 지 확인
-        if(target != null){
-            // delete() 메소드로 대상 삭제
-            this.articleRepository.delete(target);
+        // 2) 삭제된 대상이 있는 지 확인
+        if(deleted){
             // 1회성(리다이렉트 시점에 한 번만 사용 가능한 메시지, 한 번 쓰고 사라지는 휘발성 메시지
             // 리다이렉트 페이지에서 사용할 데이터를 남길 수 있음
             rttr.addFlashAttribute("msg", "삭제했습니다.");
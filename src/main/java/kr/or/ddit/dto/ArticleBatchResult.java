@@ -0,0 +1,28 @@
+package kr.or.ddit.dto;
+
+import lombok.Data;
+
+// 일괄(batch) 등록/수정/삭제의 항목별 결과
+// index : 요청 배열에서의 위치, id : 대상 글 id, status : 처리 결과
+// CONFLICT : 일괄 수정 항목의 version이 DB의 버전과 달라서 수정하지 않음(단건 PATCH의 412와 같은 경우)
+@Data
+public class ArticleBatchResult {
+
+    public enum Status {
+        CREATED, UPDATED, DELETED, BAD_REQUEST, NOT_FOUND, CONFLICT
+    }
+
+    private int index;
+
+    private Long id;
+
+    private Status status;
+
+    public ArticleBatchResult() {}
+
+    public ArticleBatchResult(int index, Long id, Status status) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+    }
+}
@@ -16,6 +16,10 @@ public class ArticleForm {
     //내용을 받을 필드
     private String content;
 
+    // 수정 시 클라이언트가 읽었던 글의 버전(선택). 값이 있으면 DB 버전과 같을 때만 수정됨
+    // PATCH 요청의 If-Match 헤더가 있으면 그 값으로 채워짐
+    private Long version;
+
     //기본생성자
     public ArticleForm() {}
 
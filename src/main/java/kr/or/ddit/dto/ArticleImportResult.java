@@ -0,0 +1,34 @@
+package kr.or.ddit.dto;
+
+import lombok.Data;
+
+// 가져오기(import) 작업의 진행 상황/결과(체크포인트 파일에도 같은 값이 저장됨)
+// rows : 처리가 끝난(커밋된) 데이터 행 수. 다시 실행하면 이만큼 건너뛰고 이어서 가져옴
+// imported / rejected : 등록된 글 수 / 형식이 잘못됐거나 등록되지 않은 행 수(이전 실행 포함 누적)
+// skipped : 이번 실행에서 이전 체크포인트 때문에 건너뛴 행 수
+// elapsedMillis / rowsPerSecond : 이번 실행의 시간과 초당 처리 행 수
+@Data
+public class ArticleImportResult {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private String job;
+
+    private Status status;
+
+    private long rows;
+
+    private long imported;
+
+    private long rejected;
+
+    private long skipped;
+
+    private long elapsedMillis;
+
+    private double rowsPerSecond;
+
+    private String error;
+}
@@ -0,0 +1,24 @@
+package kr.or.ddit.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// 커서 기반 글 목록 응답(목록에는 id, 제목만 담음. 내용은 상세 조회 /api/articles/{id})
+// nextCursor : 다음 페이지 요청 시 ?after= 에 그대로 넘길 값(마지막 글의 id). 더 이상 글이 없으면 null
+@Data
+public class ArticlePage {
+    private List<ArticleSummary> articles;
+
+    private Long nextCursor;
+
+    private int limit;
+
+    public ArticlePage() {}
+
+    public ArticlePage(List<ArticleSummary> articles, Long nextCursor, int limit) {
+        this.articles = articles;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,21 @@
+package kr.or.ddit.dto;
+
+import lombok.Data;
+
+// 검색 결과 한 건(글 id, 제목, 점수)
+@Data
+public class ArticleSearchHit {
+    private Long id;
+
+    private String title;
+
+    private float score;
+
+    public ArticleSearchHit() {}
+
+    public ArticleSearchHit(Long id, String title, float score) {
+        this.id = id;
+        this.title = title;
+        this.score = score;
+    }
+}
@@ -0,0 +1,30 @@
+package kr.or.ddit.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// 검색 결과 한 페이지
+// total : 검색어와 일치한 전체 글 수, page : 0부터 시작하는 페이지 번호
+@Data
+public class ArticleSearchResult {
+    private String query;
+
+    private int total;
+
+    private int page;
+
+    private int size;
+
+    private List<ArticleSearchHit> hits;
+
+    public ArticleSearchResult() {}
+
+    public ArticleSearchResult(String query, int total, int page, int size, List<ArticleSearchHit> hits) {
+        this.query = query;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.hits = hits;
+    }
+}
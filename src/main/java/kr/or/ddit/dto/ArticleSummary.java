@@ -0,0 +1,6 @@
+package kr.or.ddit.dto;
+
+// 목록용 글 요약(id, 제목)
+// 목록 화면/API는 내용(content)을 쓰지 않으므로 이 두 열만 SELECT 함(JPQL 생성자 표현식 프로젝션)
+public record ArticleSummary(Long id, String title) {
+}
@@ -2,6 +2,11 @@ package kr.or.ddit.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.Instant;
 
 
 // 1. 엔티티 선언
@@ -10,7 +15,14 @@ import lombok.Data;
     Entity는 JPA에서 제공하는 애너테이션. 이 애너테이션이 붙은 클래스를 기반으로
     DB에 테이블이 생성됨. 테이블 이름은 클래스 이름과 동일하게 Article로 생성됨
     */
+/*
+2차 캐시(second-level cache) : 읽기가 쓰기보다 훨씬 많으므로 findById 결과를 EntityManager 바깥(JCache/Caffeine)에 보관
+READ_WRITE : 수정/삭제 중인 글은 잠금 표시를 해서 다른 트랜잭션이 예전 값을 캐시에서 읽지 않게 함
+영역(region) 크기/만료 설정은 resources/application.conf
+ */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
     public class Article {
     //Id가 빨간색으로 표시되면 마우스를 올린 후 Alt + Enter를 누르고
@@ -23,8 +35,14 @@ import lombok.Data;
     이렇게 id 자동 생성 전략을 추가하면 앞으로 데이터를 생성할 때마다
     DB가 알아서 id에 1,2,3.. 값을 넣어줌.
     */
+    /* strategy = GenerationType.SEQUENCE
+    IDENTITY는 INSERT를 실행해야 id를 알 수 있어서 Hibernate가 INSERT를 한 건씩 바로 실행함(JDBC 배치 불가).
+    시퀀스는 id를 미리 받아 둘 수 있으므로 INSERT를 모아서(batch) 보낼 수 있음.
+    allocationSize = 50 : 시퀀스를 한 번 호출할 때 id 50개를 미리 확보(pooled-lo, application.properties 참고)
+    */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "article_seq")
+    @SequenceGenerator(name = "article_seq", sequenceName = "article_seq", allocationSize = 50)
     private Long id; // id 완전 자동화
 
     /*
@@ -35,7 +53,33 @@ import lombok.Data;
     @Column
     private String title;
     // 2. content 필드 선언, DB 테이블의 content 열과 연결됨
-        private String content;
+    /*
+    내용은 수십 KB가 될 수 있으므로
+     - 압축해서 LOB(BLOB)로 저장(ArticleContentConverter : 512바이트 이상이면 deflate)
+       H2는 큰 LOB를 행 밖에 따로 저장하므로 행이 작아져서 목록(id, 제목) 조회가 읽는 페이지 수가 줄어듦
+     - 지연 로딩(LAZY) : 글을 읽을 때 내용은 읽지 않고, getContent()를 처음 부를 때 읽어서 풂
+       Hibernate 바이트코드 향상(build.gradle의 hibernate.enhancement)으로 컴파일된 클래스에서만 동작
+       트랜잭션(또는 OSIV)이 끝난 뒤에 처음 읽으면 LazyInitializationException -> ArticleService.show는 트랜잭션 안에서 미리 읽음
+     - toString/equals/hashCode에는 넣지 않음(로그를 찍거나 비교만 해도 내용을 SELECT 하게 되므로)
+     */
+    @Lob
+    @EqualsAndHashCode.Exclude
+    @Basic(fetch = FetchType.LAZY)
+    @Convert(converter = ArticleContentConverter.class)
+    private String content;
+
+    /*
+    낙관적 잠금(optimistic locking)용 버전. 처음 저장 시 0, 수정될 때마다 1씩 증가
+    수정 요청이 읽었던 버전과 DB의 버전이 다르면 그 사이 누군가 먼저 고친 것이므로 덮어쓰지 않음
+    HTTP ETag("id-version")도 이 값으로 만듦
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // 마지막 저장/수정 시각(HTTP Last-Modified 응답 헤더용)
+    @Column(nullable = false)
+    private Instant lastModified;
 
     public Article() {}
 
@@ -46,13 +90,22 @@ import lombok.Data;
         this.content = content;
     }
 
+    // 내용까지 한 번에 읽는 조회(select new ...)용 : 영속 상태가 아닌 객체로 만들어짐
+    public Article(Long id, String title, String content, Long version, Instant lastModified) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.version = version;
+        this.lastModified = lastModified;
+    }
 
+
+    // 내용(지연 로딩)은 넣지 않음
     @Override
     public String toString() {
         return "Article{" +
                 "id=" + id +
                 ", title='" + title + '\'' +
-                ", content='" + content + '\'' +
                 '}';
     }
 
@@ -68,6 +121,13 @@ import lombok.Data;
         return content;
     }
 
+    // INSERT/UPDATE 직전에 수정 시각 갱신
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.lastModified = Instant.now();
+    }
+
     // 사용자가 title 또는 content를 생략 시 DB에 반영이 안되도록 하기 위함
     public void patch(Article article) {
         if(article.title != null){
@@ -0,0 +1,143 @@
+package kr.or.ddit.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/*
+글 내용(String) <-> DB의 CONTENT 열(BLOB) 변환
+ 첫 바이트가 저장 형식
+ - 0x00 : [0x00][UTF-8 바이트]                           짧은 글(MIN_COMPRESS_BYTES 미만)이나 압축해도 작아지지 않는 글
+ - 0x01 : [0x01][원래 UTF-8 길이(int)][deflate(zlib) 바이트] 긴 글
+ - 그 밖 : 머리 바이트 없는 UTF-8(CONTENT가 문자열 열이던 때 저장된 값을 BLOB으로 바꾼 경우)
+ Hibernate를 거치지 않고 CONTENT를 직접 읽고 쓰는 곳(네이티브 수정 쿼리, 쓰기 지연 INSERT, 내용 스트리밍,
+ mapped 저장소로 옮겨 오기)도 encode/decode/decodingStream을 씀
+ */
+@Converter
+public class ArticleContentConverter implements AttributeConverter<String, byte[]> {
+
+    static final byte RAW = 0x00;
+    static final byte DEFLATE = 0x01;
+
+    // 이보다 짧은 글은 압축하지 않음(압축 헤더/CPU 비용이 줄어드는 바이트보다 큼)
+    static final int MIN_COMPRESS_BYTES = 512;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String content) {
+        return encode(content);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] data) {
+        return decode(data);
+    }
+
+    public static byte[] encode(String content) {
+        if(content == null){
+            return null;
+        }
+
+        byte[] utf8 = content.getBytes(StandardCharsets.UTF_8);
+        if(utf8.length >= MIN_COMPRESS_BYTES){
+            byte[] compressed = deflate(utf8);
+            if(compressed != null){
+                return compressed;
+            }
+        }
+
+        byte[] data = new byte[utf8.length + 1];
+        data[0] = RAW;
+        System.arraycopy(utf8, 0, data, 1, utf8.length);
+        return data;
+    }
+
+    public static String decode(byte[] data) {
+        if(data == null){
+            return null;
+        }
+        if(data.length == 0){
+            return "";
+        }
+
+        switch(data[0]){
+            case RAW:
+                return new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+            case DEFLATE:
+                return new String(inflate(data), StandardCharsets.UTF_8);
+            default:
+                return new String(data, StandardCharsets.UTF_8);
+        }
+    }
+
+    // CONTENT 열의 바이트 스트림 -> 풀린 UTF-8 바이트 스트림(내용 전체를 메모리에 올리지 않음)
+    public static InputStream decodingStream(InputStream data) throws IOException {
+        if(data == null){
+            return InputStream.nullInputStream();
+        }
+
+        int header = data.read();
+        if(header == -1 || header == RAW){
+            return data;
+        }
+        if(header == DEFLATE){
+            // 원래 길이는 스트림에서는 쓰지 않음
+            data.skipNBytes(Integer.BYTES);
+            return new InflaterInputStream(data);
+        }
+        // 머리 바이트 없는 예전 값 : 읽은 첫 바이트를 되돌려 놓음
+        return new SequenceInputStream(new ByteArrayInputStream(new byte[]{(byte) header}), data);
+    }
+
+    // 압축해도 작아지지 않으면 null
+    private static byte[] deflate(byte[] utf8) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try{
+            deflater.setInput(utf8);
+            deflater.finish();
+
+            // 머리(5바이트) + 압축 결과가 원래(머리 1바이트 포함)보다 작을 때만 씀
+            byte[] data = new byte[utf8.length];
+            ByteBuffer.wrap(data).put(DEFLATE).putInt(utf8.length);
+            int length = 1 + Integer.BYTES;
+            while(!deflater.finished() && length < data.length){
+                length += deflater.deflate(data, length, data.length - length);
+            }
+            return deflater.finished() ? Arrays.copyOf(data, length) : null;
+        }finally{
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        int length = ByteBuffer.wrap(data, 1, Integer.BYTES).getInt();
+        Inflater inflater = new Inflater();
+        try{
+            inflater.setInput(data, 1 + Integer.BYTES, data.length - 1 - Integer.BYTES);
+            byte[] utf8 = new byte[length];
+            int read = 0;
+            while(read < length && !inflater.finished()){
+                int n = inflater.inflate(utf8, read, length - read);
+                if(n == 0 && (inflater.needsInput() || inflater.needsDictionary())){
+                    throw new IllegalStateException("truncated article content");
+                }
+                read += n;
+            }
+            return utf8;
+        }catch(DataFormatException e){
+            throw new IllegalStateException("corrupt article content", e);
+        }finally{
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package kr.or.ddit.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 쓰기 지연(write-behind) 큐가 가득 차서 글 등록을 받을 수 없음 -> 429 Too Many Requests
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class ArticleQueueFullException extends RuntimeException {
+
+    public ArticleQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package kr.or.ddit.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 수정 요청의 버전(If-Match)이 DB의 글 버전과 다름 -> 412 Precondition Failed
+// 그 사이 다른 요청이 먼저 수정했으므로 최신 글을 다시 읽고 수정해야 함
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class ArticleVersionConflictException extends RuntimeException {
+
+    public ArticleVersionConflictException(String message) {
+        super(message);
+    }
+}
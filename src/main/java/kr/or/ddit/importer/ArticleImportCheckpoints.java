@@ -0,0 +1,75 @@
+package kr.or.ddit.importer;
+
+import kr.or.ddit.dto.ArticleImportResult;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/*
+가져오기 작업별 체크포인트 파일 : <dir>/<job>.properties
+ 배치가 커밋될 때마다 덮어씀. 임시 파일에 쓴 뒤 이름을 바꾸므로(atomic move) 쓰다가 죽어도 이전 내용이 남음
+ 주의 : 커밋 직후 체크포인트를 쓰기 전에 프로세스가 죽으면 다시 실행할 때 그 배치(batch-size 행)가 한 번 더 등록됨
+ */
+class ArticleImportCheckpoints {
+
+    private final Path dir;
+
+    ArticleImportCheckpoints(Path dir) {
+        this.dir = dir;
+    }
+
+    // 없으면 null
+    ArticleImportResult load(String job) throws IOException {
+        Properties properties = new Properties();
+        try(Reader reader = Files.newBufferedReader(file(job), StandardCharsets.UTF_8)){
+            properties.load(reader);
+        }catch(NoSuchFileException e){
+            return null;
+        }
+
+        ArticleImportResult result = new ArticleImportResult();
+        result.setJob(job);
+        result.setStatus(ArticleImportResult.Status.valueOf(properties.getProperty("status")));
+        result.setRows(Long.parseLong(properties.getProperty("rows", "0")));
+        result.setImported(Long.parseLong(properties.getProperty("imported", "0")));
+        result.setRejected(Long.parseLong(properties.getProperty("rejected", "0")));
+        result.setSkipped(Long.parseLong(properties.getProperty("skipped", "0")));
+        result.setElapsedMillis(Long.parseLong(properties.getProperty("elapsedMillis", "0")));
+        result.setRowsPerSecond(Double.parseDouble(properties.getProperty("rowsPerSecond", "0")));
+        result.setError(properties.getProperty("error"));
+        return result;
+    }
+
+    void save(ArticleImportResult result) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("status", result.getStatus().name());
+        properties.setProperty("rows", String.valueOf(result.getRows()));
+        properties.setProperty("imported", String.valueOf(result.getImported()));
+        properties.setProperty("rejected", String.valueOf(result.getRejected()));
+        properties.setProperty("skipped", String.valueOf(result.getSkipped()));
+        properties.setProperty("elapsedMillis", String.valueOf(result.getElapsedMillis()));
+        properties.setProperty("rowsPerSecond", String.valueOf(result.getRowsPerSecond()));
+        if(result.getError() != null){
+            properties.setProperty("error", result.getError());
+        }
+
+        Files.createDirectories(this.dir);
+        Path file = file(result.getJob());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try(Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)){
+            properties.store(writer, null);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path file(String job) {
+        return this.dir.resolve(job + ".properties");
+    }
+}
@@ -0,0 +1,34 @@
+package kr.or.ddit.importer;
+
+import java.util.Locale;
+
+// 가져오기(import) 파일 형식
+//  CSV    : 첫 줄이 헤더(title,content 열 이름)면 이름으로, 아니면 1열 = 제목, 2열 = 내용
+//  NDJSON : 한 줄에 글 하나(JSON). export(/api/articles/export) 결과를 그대로 넣을 수 있음
+public enum ArticleImportFormat {
+
+    CSV, NDJSON;
+
+    // format 파라미터(csv, ndjson)가 있으면 그 값으로, 없으면 Content-Type(또는 파일 이름)으로 판단. 모르면 null
+    public static ArticleImportFormat of(String format, String contentTypeOrFileName) {
+        if(format != null && !format.isBlank()){
+            try{
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            }catch(IllegalArgumentException e){
+                return null;
+            }
+        }
+        if(contentTypeOrFileName == null){
+            return null;
+        }
+
+        String value = contentTypeOrFileName.toLowerCase(Locale.ROOT);
+        if(value.contains("csv")){
+            return CSV;
+        }
+        if(value.contains("ndjson") || value.contains("jsonl") || value.contains("json")){
+            return NDJSON;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,272 @@
+package kr.or.ddit.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import kr.or.ddit.dto.ArticleBatchResult;
+import kr.or.ddit.dto.ArticleForm;
+import kr.or.ddit.dto.ArticleImportResult;
+import kr.or.ddit.service.ArticleService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/*
+글 대량 가져오기(import) : CSV/NDJSON 스트림 -> 글 등록
+ 읽기(parse)와 쓰기(DB)를 나눠서 동시에 실행(pipeline)
+ 1. 호출한 스레드 : ArticleRowReader로 한 행씩 읽어 batch-size 행씩 묶음(chunk)을 만들어 큐에 넣음
+ 2. writer 스레드 : 큐에서 묶음을 꺼내 ArticleService.createAll(묶음 하나 = 트랜잭션 하나, ArticleForm.toEntity()로 변환)
+ 큐 크기(queue-capacity)가 정해져 있어서 DB가 느리면 읽기가 기다림 -> 파일 크기와 상관없이 메모리 사용량이 일정함
+
+ 체크포인트 : 묶음이 커밋될 때마다 처리한 행 수를 <checkpoint-dir>/<job>.properties 에 저장(ArticleImportCheckpoints)
+  같은 job 이름으로 같은 파일을 다시 올리면 저장된 행 수만큼 건너뛰고 이어서 가져옴
+ 진행 상황 : progress-interval마다 로그(처리 행 수, rows/s), progress(job)으로 조회
+ 메트릭 : article.import.rows(result=imported|rejected), article.import.batch(묶음 하나의 등록 시간), article.import.running
+ */
+@Slf4j
+@Service
+public class ArticleImporter {
+
+    // 체크포인트 파일 이름으로 쓰므로 경로 문자(/, ..)가 들어가지 않게 제한
+    private static final Pattern JOB_NAME = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    // 읽기가 끝났음을 writer에게 알리는 표시
+    private static final Chunk END = new Chunk(List.of(), 0, 0);
+
+    @Value("${article.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${article.import.queue-capacity:4}")
+    private int queueCapacity;
+
+    @Value("${article.import.checkpoint-dir:./data/import}")
+    private String checkpointDir;
+
+    @Value("${article.import.progress-interval:10s}")
+    private Duration progressInterval;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 실행 중인 job 이름(같은 job을 동시에 두 번 실행하지 않도록)
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    private ArticleImportCheckpoints checkpoints;
+
+    private Counter importedCounter;
+    private Counter rejectedCounter;
+    private Timer batchTimer;
+
+    // 읽은 행 묶음. lastRow : 묶음의 마지막 행 번호, rejected : 묶음 안의 잘못된 행 수
+    private record Chunk(List<ArticleForm> forms, long lastRow, long rejected) {}
+
+    @PostConstruct
+    void init() {
+        this.checkpoints = new ArticleImportCheckpoints(Path.of(this.checkpointDir));
+
+        this.importedCounter = Counter.builder("article.import.rows")
+                .tag("result", "imported")
+                .register(this.meterRegistry);
+        this.rejectedCounter = Counter.builder("article.import.rows")
+                .tag("result", "rejected")
+                .register(this.meterRegistry);
+        this.batchTimer = Timer.builder("article.import.batch")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(this.meterRegistry);
+        Gauge.builder("article.import.running", this.running, Set::size)
+                .register(this.meterRegistry);
+    }
+
+    // 작업의 마지막 체크포인트. 없는 작업(또는 잘못된 이름)이면 null
+    public ArticleImportResult progress(String job) throws IOException {
+        if(job == null || !JOB_NAME.matcher(job).matches()){
+            return null;
+        }
+        return this.checkpoints.load(job);
+    }
+
+    // in을 끝까지 읽어 가져옴. job이 없으면 새 이름을 만듦
+    // job 이름이 잘못됐거나 같은 job이 실행 중이면 null
+    // 중간에 실패하면(연결 끊김, DB 오류) status=FAILED. 커밋된 곳까지는 체크포인트에 남으므로 다시 실행하면 이어서 가져옴
+    public ArticleImportResult importFrom(InputStream in, ArticleImportFormat format, String job) throws IOException {
+        if(job == null || job.isBlank()){
+            job = "import-" + System.currentTimeMillis();
+        }
+        if(!JOB_NAME.matcher(job).matches() || !this.running.add(job)){
+            log.info("importFrom->invalid or running job : {}", job);
+            return null;
+        }
+
+        try{
+            return run(in, format, job);
+        }finally{
+            this.running.remove(job);
+        }
+    }
+
+    private ArticleImportResult run(InputStream in, ArticleImportFormat format, String job) throws IOException {
+        ArticleImportResult previous = this.checkpoints.load(job);
+        long skip = (previous == null) ? 0 : previous.getRows();
+
+        ArticleImportResult result = new ArticleImportResult();
+        result.setJob(job);
+        result.setStatus(ArticleImportResult.Status.RUNNING);
+        result.setRows(skip);
+        result.setSkipped(skip);
+        if(previous != null){
+            result.setImported(previous.getImported());
+            result.setRejected(previous.getRejected());
+        }
+        this.checkpoints.save(result);
+        log.info("importFrom->job : {}, format : {}, resume after row : {}", job, format, skip);
+
+        long started = System.nanoTime();
+        BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(this.queueCapacity);
+        AtomicReference<Exception> writeFailure = new AtomicReference<>();
+        Thread writer = new Thread(() -> writeLoop(queue, result, started, writeFailure), "article-import-" + job);
+        writer.start();
+
+        Exception readFailure = null;
+        try(ArticleRowReader reader = new ArticleRowReader(in, format, this.objectMapper)){
+            List<ArticleForm> forms = new ArrayList<>(this.batchSize);
+            long rejected = 0;
+            long lastRow = skip;
+
+            ArticleRowReader.Row row;
+            while((row = reader.next()) != null){
+                if(row.number() <= skip){
+                    continue;
+                }
+                lastRow = row.number();
+                if(row.form() == null){
+                    rejected++;
+                }else{
+                    forms.add(row.form());
+                }
+
+                if(forms.size() + rejected >= this.batchSize){
+                    if(!put(queue, new Chunk(forms, lastRow, rejected), writeFailure)){
+                        break;
+                    }
+                    forms = new ArrayList<>(this.batchSize);
+                    rejected = 0;
+                }
+            }
+            if(writeFailure.get() == null && forms.size() + rejected > 0){
+                put(queue, new Chunk(forms, lastRow, rejected), writeFailure);
+            }
+        }catch(IOException | RuntimeException e){
+            readFailure = e;
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            readFailure = e;
+        }finally{
+            // 이미 큐에 넣은 묶음은 writer가 모두 등록한 뒤 끝남
+            try{
+                put(queue, END, writeFailure);
+                writer.join();
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                writer.interrupt();
+            }
+        }
+
+        Exception failure = (writeFailure.get() != null) ? writeFailure.get() : readFailure;
+        result.setStatus(failure == null ? ArticleImportResult.Status.COMPLETED : ArticleImportResult.Status.FAILED);
+        result.setError(failure == null ? null : failure.toString());
+        updateRate(result, started);
+        this.checkpoints.save(result);
+
+        if(failure == null){
+            log.info("importFrom->completed : {}", result);
+        }else{
+            log.error("importFrom->failed : {}", result, failure);
+        }
+        return result;
+    }
+
+    // 큐에 자리가 날 때까지 기다림. writer가 실패해서 멈췄으면 false
+    private static boolean put(BlockingQueue<Chunk> queue, Chunk chunk,
+                               AtomicReference<Exception> writeFailure) throws InterruptedException {
+        while(!queue.offer(chunk, 100, TimeUnit.MILLISECONDS)){
+            if(writeFailure.get() != null){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeLoop(BlockingQueue<Chunk> queue, ArticleImportResult result, long started,
+                           AtomicReference<Exception> writeFailure) {
+        long nextProgress = started + this.progressInterval.toNanos();
+
+        try{
+            Chunk chunk;
+            while((chunk = queue.take()) != END){
+                long created = 0;
+                if(!chunk.forms().isEmpty()){
+                    long batchStarted = System.nanoTime();
+                    List<ArticleBatchResult> results = this.articleService.createAll(chunk.forms());
+                    this.batchTimer.record(System.nanoTime() - batchStarted, TimeUnit.NANOSECONDS);
+
+                    for(ArticleBatchResult batchResult : results){
+                        if(batchResult.getStatus() == ArticleBatchResult.Status.CREATED){
+                            created++;
+                        }
+                    }
+                }
+                long rejected = chunk.rejected() + (chunk.forms().size() - created);
+
+                this.importedCounter.increment(created);
+                this.rejectedCounter.increment(rejected);
+                result.setRows(chunk.lastRow());
+                result.setImported(result.getImported() + created);
+                result.setRejected(result.getRejected() + rejected);
+                updateRate(result, started);
+                this.checkpoints.save(result);
+
+                if(System.nanoTime() >= nextProgress){
+                    nextProgress = System.nanoTime() + this.progressInterval.toNanos();
+                    log.info("import->job : {}, rows : {}, imported : {}, rejected : {}, {} rows/s",
+                            result.getJob(), result.getRows(), result.getImported(), result.getRejected(),
+                            String.format("%.0f", result.getRowsPerSecond()));
+                }
+            }
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            writeFailure.set(e);
+        }catch(IOException | RuntimeException e){
+            writeFailure.set(e);
+        }
+    }
+
+    private static void updateRate(ArticleImportResult result, long started) {
+        long elapsedNanos = System.nanoTime() - started;
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        result.setRowsPerSecond(elapsedNanos == 0 ? 0 : (result.getRows() - result.getSkipped()) * 1e9 / elapsedNanos);
+    }
+}
@@ -0,0 +1,239 @@
+package kr.or.ddit.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import kr.or.ddit.dto.ArticleForm;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/*
+CSV/NDJSON 스트림을 한 행(row)씩 읽어 ArticleForm으로 바꿈
+ 파일 전체를 메모리에 올리지 않고 버퍼(64KB)만큼씩 읽음
+ - 행 번호(number)는 헤더와 빈 줄을 뺀 1부터의 데이터 행 번호(체크포인트에서 건너뛸 행 수로 씀)
+ - 형식이 잘못된 행(JSON 오류, 열 부족, 닫히지 않은 따옴표, 너무 긴 값)은 form이 null인 Row로 반환하고 다음 행으로 넘어감
+ - 닫히지 않은 따옴표 : 따옴표 안에서 파일이 끝나거나 값이 MAX_FIELD_LENGTH를 넘으면 따옴표를 연 곳으로 돌아가
+   그 줄 끝까지만 버리고 다음 줄부터 다시 읽음(따옴표 하나가 뒤의 행을 모두 삼키지 않도록)
+ - id/version은 가져오지 않음(새 글로 등록하므로 DB가 정함)
+ CSV : RFC 4180. 따옴표 안의 쉼표/줄바꿈은 값의 일부, "" 는 따옴표 하나. 줄 끝은 \n, \r\n 모두 가능
+ */
+public class ArticleRowReader implements Closeable {
+
+    // 값 하나의 최대 길이(문자). 넘으면 그 행은 잘못된 행(닫히지 않은 따옴표가 파일 끝까지 쌓이지 않도록)
+    static final int MAX_FIELD_LENGTH = 1 << 20;
+
+    // 따옴표를 연 곳(mark)으로 돌아갈 수 있도록 보관할 문자 수. 따옴표 안에서 검사 사이에 최대 2문자를 더 읽음("" 다음 문자)
+    // 닫는 따옴표에서 mark(1)로 바꿔 이 표시를 버리므로, 버퍼는 따옴표 안의 값 하나가 읽기 버퍼(64KB)보다 길 때만 이만큼 커짐
+    // (BufferedReader는 한 번 커진 버퍼를 줄이지 않으므로 그 뒤로는 닫을 때까지 이 크기를 유지)
+    private static final int QUOTED_READ_AHEAD = MAX_FIELD_LENGTH + 2;
+
+    // 형식이 잘못된 CSV 레코드 표시
+    private static final List<String> MALFORMED = List.of();
+
+    // 한 행의 결과. form이 null이면 잘못된 행
+    public record Row(long number, ArticleForm form) {}
+
+    private final BufferedReader reader;
+
+    private final ArticleImportFormat format;
+
+    // export 결과의 version, lastModified 같은 다른 필드는 무시
+    private final ObjectReader formReader;
+
+    private long number;
+
+    // CSV 열 위치(헤더가 있으면 헤더의 이름으로 정함)
+    private int titleColumn = 0;
+    private int contentColumn = 1;
+    private boolean headerChecked;
+
+    private final StringBuilder field = new StringBuilder();
+
+    public ArticleRowReader(InputStream in, ArticleImportFormat format, ObjectMapper objectMapper) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        this.format = format;
+        this.formReader = objectMapper.readerFor(ArticleForm.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        skipByteOrderMark();
+    }
+
+    // 다음 행. 파일 끝이면 null
+    public Row next() throws IOException {
+        return (this.format == ArticleImportFormat.CSV) ? nextCsv() : nextNdjson();
+    }
+
+    private Row nextNdjson() throws IOException {
+        String line;
+        while((line = this.reader.readLine()) != null){
+            if(line.isBlank()){
+                continue;
+            }
+            this.number++;
+
+            if(line.length() > MAX_FIELD_LENGTH){
+                return new Row(this.number, null);
+            }
+            try{
+                ArticleForm form = this.formReader.readValue(line);
+                return new Row(this.number, (form == null) ? null : newForm(form.getTitle(), form.getContent()));
+            }catch(JsonProcessingException e){
+                return new Row(this.number, null);
+            }
+        }
+        return null;
+    }
+
+    private Row nextCsv() throws IOException {
+        List<String> record;
+        while((record = readRecord()) != null){
+            if(!this.headerChecked){
+                this.headerChecked = true;
+                if(readHeader(record)){
+                    continue;
+                }
+            }
+            // 빈 줄
+            if(record.size() == 1 && record.get(0).isEmpty()){
+                continue;
+            }
+            this.number++;
+
+            if(record == MALFORMED || record.size() <= Math.max(this.titleColumn, this.contentColumn)){
+                return new Row(this.number, null);
+            }
+            return new Row(this.number, newForm(record.get(this.titleColumn), record.get(this.contentColumn)));
+        }
+        return null;
+    }
+
+    // 첫 레코드에 title, content 열 이름이 모두 있으면 헤더로 보고 열 위치를 정함
+    private boolean readHeader(List<String> record) {
+        int title = -1;
+        int content = -1;
+        for(int i = 0; i < record.size(); i++){
+            String name = record.get(i).trim().toLowerCase(Locale.ROOT);
+            if(name.equals("title")){
+                title = i;
+            }else if(name.equals("content")){
+                content = i;
+            }
+        }
+        if(title < 0 || content < 0){
+            return false;
+        }
+
+        this.titleColumn = title;
+        this.contentColumn = content;
+        return true;
+    }
+
+    // CSV 레코드 하나(여러 줄일 수 있음). 파일 끝이면 null
+    private List<String> readRecord() throws IOException {
+        int c = this.reader.read();
+        if(c == -1){
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = this.field;
+        field.setLength(0);
+        boolean quoted = false;
+        boolean tooLong = false;
+        // 따옴표를 연 뒤에 읽은 문자 수
+        int quotedRead = 0;
+
+        while(true){
+            if(quoted){
+                if(c == -1 || quotedRead > MAX_FIELD_LENGTH){
+                    // 닫는 따옴표 없이 파일이 끝났거나 값이 너무 김 -> 닫히지 않은 따옴표로 보고 그 줄만 버림
+                    skipQuotedLine();
+                    return MALFORMED;
+                }
+                if(c == '"'){
+                    c = this.reader.read();
+                    quotedRead++;
+                    if(c != '"'){
+                        // 닫는 따옴표. 읽은 문자는 따옴표 밖에서 다시 처리
+                        // 여는 따옴표의 큰 mark를 버림(남겨 두면 뒤의 따옴표 없는 값을 읽는 동안에도 버퍼가 커짐)
+                        quoted = false;
+                        this.reader.mark(1);
+                        continue;
+                    }
+                }
+            }else if(c == ',' || c == '\n' || c == '\r' || c == -1){
+                fields.add(field.toString());
+                field.setLength(0);
+                if(c == ','){
+                    c = this.reader.read();
+                    continue;
+                }
+                if(c == '\r'){
+                    this.reader.mark(1);
+                    if(this.reader.read() != '\n'){
+                        this.reader.reset();
+                    }
+                }
+                return tooLong ? MALFORMED : fields;
+            }else if(c == '"' && field.isEmpty()){
+                quoted = true;
+                this.reader.mark(QUOTED_READ_AHEAD);
+                c = this.reader.read();
+                quotedRead = 1;
+                continue;
+            }
+
+            if(field.length() < MAX_FIELD_LENGTH){
+                field.append((char) c);
+            }else{
+                tooLong = true;
+            }
+            c = this.reader.read();
+            if(quoted){
+                quotedRead++;
+            }
+        }
+    }
+
+    // 여는 따옴표 바로 다음으로 돌아가서 그 줄의 끝(\n, \r\n, \r)까지 버림
+    private void skipQuotedLine() throws IOException {
+        this.reader.reset();
+        int c;
+        while((c = this.reader.read()) != -1){
+            if(c == '\n'){
+                return;
+            }
+            if(c == '\r'){
+                this.reader.mark(1);
+                if(this.reader.read() != '\n'){
+                    this.reader.reset();
+                }
+                return;
+            }
+        }
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        this.reader.mark(1);
+        if(this.reader.read() != '\uFEFF'){
+            this.reader.reset();
+        }
+    }
+
+    private static ArticleForm newForm(String title, String content) {
+        return new ArticleForm(null, title, content);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+}
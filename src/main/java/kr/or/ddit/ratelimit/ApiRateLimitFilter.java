@@ -0,0 +1,221 @@
+package kr.or.ddit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+REST API(/api/**) 요청 제한 필터 : article.rate-limit.enabled=true 일 때만 등록됨
+ 1. 클라이언트별 토큰 버킷에서 경로 비용(ApiRoute)만큼 토큰을 꺼냄
+    모자라면 429 Too Many Requests + Retry-After(초)
+    클라이언트 : 로그인 사용자면 사용자 이름, 아니면 접속 IP
+    X-Client-Id / X-Forwarded-For 헤더는 trusted-proxies(게이트웨이/로드 밸런서)에서 온 요청일 때만 믿음
+    (아무나 보낼 수 있는 헤더를 그대로 쓰면 요청마다 값을 바꿔 제한을 피하고, 버킷 맵을 max-clients까지 채워 다른 클라이언트의 버킷을 밀어냄)
+ 2. 목록/검색/내보내기(expensive)는 서버 전체 동시 실행 수도 제한. 자리가 없으면 기다리지 않고 429 + Retry-After: 1
+    비동기 응답(export의 StreamingResponseBody)은 응답이 끝날 때 자리를 돌려줌
+ 메트릭 : article.ratelimit.rejected(route, reason=rate|concurrency)
+ http.server.requests 관측 필터 뒤에 두어 거절된 요청도 요청 메트릭에 남김
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+@ConditionalOnProperty(prefix = "article.rate-limit", name = "enabled", havingValue = "true")
+public class ApiRateLimitFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    public static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    @Value("${article.rate-limit.rate:50}")
+    private double ratePerSecond;
+
+    @Value("${article.rate-limit.burst:100}")
+    private int burst;
+
+    @Value("${article.rate-limit.max-clients:100000}")
+    private long maxClients;
+
+    @Value("${article.rate-limit.idle-timeout:10m}")
+    private Duration idleTimeout;
+
+    @Value("${article.rate-limit.max-concurrent-expensive:16}")
+    private int maxConcurrentExpensive;
+
+    // 헤더를 믿을 프록시의 IP 주소(쉼표로 구분). 비어 있으면 헤더를 모두 무시하고 접속 IP만 씀
+    @Value("${article.rate-limit.trusted-proxies:}")
+    private Set<String> trustedProxies;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ApiRateLimiter limiter;
+
+    private Semaphore expensiveSlots;
+
+    // ApiRoute 순서(ordinal)별 비용 / 거절 카운터(요청마다 조회하지 않도록 미리 만듦)
+    private int[] costs;
+    private Counter[] rateRejected;
+    private Counter[] concurrencyRejected;
+
+    @PostConstruct
+    void init() {
+        this.limiter = new ApiRateLimiter(this.ratePerSecond, this.burst, this.maxClients, this.idleTimeout);
+        this.expensiveSlots = new Semaphore(this.maxConcurrentExpensive);
+
+        ApiRoute[] routes = ApiRoute.values();
+        this.costs = new int[routes.length];
+        this.rateRejected = new Counter[routes.length];
+        this.concurrencyRejected = new Counter[routes.length];
+        for(ApiRoute route : routes){
+            String name = route.name().toLowerCase(Locale.ROOT);
+            this.costs[route.ordinal()] = this.environment.getProperty(
+                    "article.rate-limit.cost." + name, Integer.class, route.defaultCost());
+            this.rateRejected[route.ordinal()] = rejectedCounter(name, "rate");
+            this.concurrencyRejected[route.ordinal()] = rejectedCounter(name, "concurrency");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ApiRoute route = ApiRoute.of(request.getMethod(), request.getRequestURI());
+
+        long waitNanos = this.limiter.tryAcquire(clientId(request), this.costs[route.ordinal()], System.nanoTime());
+        if(waitNanos > 0){
+            this.rateRejected[route.ordinal()].increment();
+            reject(response, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            return;
+        }
+
+        if(!route.expensive()){
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if(!this.expensiveSlots.tryAcquire()){
+            this.concurrencyRejected[route.ordinal()].increment();
+            reject(response, 1);
+            return;
+        }
+
+        boolean async = false;
+        try{
+            filterChain.doFilter(request, response);
+            if(request.isAsyncStarted()){
+                request.getAsyncContext().addListener(new ReleaseOnComplete(this.expensiveSlots));
+                async = true;
+            }
+        }finally{
+            if(!async){
+                this.expensiveSlots.release();
+            }
+        }
+    }
+
+    private String clientId(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if(principal != null){
+            return "user:" + principal.getName();
+        }
+        return clientId(request.getRemoteAddr(), request.getHeader(CLIENT_ID_HEADER),
+                request.getHeader(FORWARDED_FOR_HEADER), this.trustedProxies);
+    }
+
+    // 접속한 곳이 믿는 프록시일 때만 헤더를 봄
+    // 1. 프록시가 넣어 준 X-Client-Id
+    // 2. X-Forwarded-For를 오른쪽(가까운 쪽)부터 보며 믿는 프록시가 아닌 첫 주소(왼쪽 값은 클라이언트가 마음대로 넣을 수 있음)
+    // 3. 둘 다 없으면 접속 IP
+    static String clientId(String remoteAddr, String clientIdHeader, String forwardedFor, Set<String> trustedProxies) {
+        if(!trustedProxies.contains(remoteAddr)){
+            return remoteAddr;
+        }
+        if(clientIdHeader != null && !clientIdHeader.isBlank()){
+            return "id:" + clientIdHeader.strip();
+        }
+        if(forwardedFor != null){
+            String[] hops = forwardedFor.split(",");
+            for(int i = hops.length - 1; i >= 0; i--){
+                String hop = hops[i].strip();
+                if(!hop.isEmpty() && !trustedProxies.contains(hop)){
+                    return hop;
+                }
+            }
+        }
+        return remoteAddr;
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":429,\"error\":\"Too Many Requests\"}");
+    }
+
+    private Counter rejectedCounter(String route, String reason) {
+        return Counter.builder("article.ratelimit.rejected")
+                .tag("route", route)
+                .tag("reason", reason)
+                .register(this.meterRegistry);
+    }
+
+    // 비동기 응답이 끝나면(완료/오류/시간 초과 모두 onComplete가 마지막에 호출됨) 한 번만 자리 반환
+    private static final class ReleaseOnComplete implements AsyncListener {
+
+        private final Semaphore slots;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnComplete(Semaphore slots) {
+            this.slots = slots;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if(this.released.compareAndSet(false, true)){
+                this.slots.release();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {}
+
+        @Override
+        public void onError(AsyncEvent event) {}
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {}
+    }
+}
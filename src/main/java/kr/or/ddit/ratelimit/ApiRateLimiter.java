@@ -0,0 +1,54 @@
+package kr.or.ddit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+클라이언트별 토큰 버킷(잠금 없음, GCRA : Generic Cell Rate Algorithm)
+ 버킷 하나는 AtomicLong 하나(TAT : 다음 토큰이 "이론상" 도착하는 시각, ns)
+ - 초당 ratePerSecond개씩 토큰이 차고, 최대 burst개까지 모아 둘 수 있음
+ - cost개를 꺼내려면 TAT를 cost * 토큰 간격만큼 뒤로 미는데, 그 결과가 지금 + burst 분량을 넘으면 거절
+ - 갱신은 CAS 한 번(경합 시 재시도). 잠금이나 타이머 스레드가 없음
+ 클라이언트 -> 버킷 맵은 Caffeine(최대 maxClients개, 일정 시간 안 쓰면 제거)로 메모리 상한을 둠
+ */
+public class ApiRateLimiter {
+
+    private final long emissionInterval;   // 토큰 1개 간격(ns)
+    private final long tolerance;          // burst 분량 시간(ns)
+    private final int burst;
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public ApiRateLimiter(double ratePerSecond, int burst, long maxClients, Duration idleTimeout) {
+        this.emissionInterval = (long) (1_000_000_000L / ratePerSecond);
+        this.burst = Math.max(burst, 1);
+        this.tolerance = this.emissionInterval * this.burst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    // cost개를 꺼냄. 허용이면 0, 거절이면 다시 시도할 수 있을 때까지 남은 시간(ns)
+    public long tryAcquire(String client, int cost, long nowNanos) {
+        AtomicLong bucket = this.buckets.get(client, key -> new AtomicLong(Long.MIN_VALUE));
+        long increment = this.emissionInterval * Math.min(cost, this.burst);
+
+        while(true){
+            long tat = bucket.get();
+            // 오래 안 쓴 버킷(TAT가 과거)은 지금부터 다시 셈 -> 최대 burst개까지만 모임
+            long start = Math.max(tat, nowNanos);
+            long newTat = start + increment;
+            long allowAt = newTat - this.tolerance;
+            if(allowAt > nowNanos){
+                return allowAt - nowNanos;
+            }
+            if(bucket.compareAndSet(tat, newTat)){
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package kr.or.ddit.ratelimit;
+
+/*
+요청 제한(rate limit)에서 쓰는 REST API 경로 구분
+ defaultCost : 토큰 버킷에서 한 번에 꺼내는 토큰 수(article.rate-limit.cost.<이름 소문자> 로 바꿀 수 있음)
+ expensive   : 동시 실행 수 제한 대상(목록/검색/내보내기처럼 많은 행을 읽는 경로)
+ */
+public enum ApiRoute {
+
+    INDEX(5, true),     // GET /api/articles
+    SEARCH(5, true),    // GET /api/articles/search
+    EXPORT(50, true),   // GET /api/articles/export
+    CHANGES(1, false),  // GET /api/articles/changes (SSE, 오래 열려 있으므로 동시 실행 제한에서 제외)
+    SHOW(1, false),     // GET /api/articles/{id}
+    WRITE(2, false),    // POST /api/articles, PATCH/DELETE /api/articles/{id}
+    BATCH(10, false),   // /api/articles/batch
+    IMPORT(50, false),  // /api/articles/import (오래 걸리므로 목록/검색의 동시 실행 자리를 차지하지 않게 함)
+    OTHER(1, false);
+
+    private static final String BASE = "/api/articles";
+
+    private final int defaultCost;
+
+    private final boolean expensive;
+
+    ApiRoute(int defaultCost, boolean expensive) {
+        this.defaultCost = defaultCost;
+        this.expensive = expensive;
+    }
+
+    public int defaultCost() {
+        return this.defaultCost;
+    }
+
+    public boolean expensive() {
+        return this.expensive;
+    }
+
+    // 요청마다 호출되므로 정규식/핸들러 조회 없이 문자열 비교만 함
+    public static ApiRoute of(String method, String path) {
+        if(!path.startsWith(BASE)){
+            return OTHER;
+        }
+        if(path.length() == BASE.length()){
+            return "GET".equals(method) ? INDEX : WRITE;
+        }
+        if(path.charAt(BASE.length()) != '/'){
+            return OTHER;
+        }
+
+        String rest = path.substring(BASE.length() + 1);
+        switch(rest){
+            case "search":
+                return SEARCH;
+            case "export":
+                return EXPORT;
+            case "changes":
+                return CHANGES;
+            case "batch":
+                return BATCH;
+            case "import":
+                return IMPORT;
+            default:
+                break;
+        }
+        if(rest.isEmpty() || rest.indexOf('/') >= 0){
+            return OTHER;
+        }
+        return "GET".equals(method) ? SHOW : WRITE;
+    }
+}
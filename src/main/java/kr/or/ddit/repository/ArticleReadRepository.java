@@ -0,0 +1,31 @@
+package kr.or.ddit.repository;
+
+import kr.or.ddit.entity.Article;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/*
+트랜잭션/커서/스트림을 저장소 쪽에서 관리해야 하는 읽기(ArticleRepository가 상속함)
+ JPA 구현은 ArticleReadRepositoryImpl(스프링 데이터가 이름으로 찾아서 리파지터리에 붙임),
+ mapped 프로필은 MappedArticleRepository가 직접 구현함
+ -> 호출하는 쪽(ArticleService, ArticleSearchIndex)은 트랜잭션을 열지 않고 저장소 종류도 몰라도 됨
+ */
+public interface ArticleReadRepository {
+
+    // 글 하나씩 받는 쪽(내보내기처럼 IOException을 던질 수 있음)
+    @FunctionalInterface
+    interface Handler {
+        void handle(Article article) throws IOException;
+    }
+
+    // 내용(content)까지 읽은 글. 지연 로딩된 내용도 미리 읽어 두므로 트랜잭션 밖(캐시/뷰)에서 바로 쓸 수 있음
+    Optional<Article> findWithContentById(Long id);
+
+    // 전체 글을 id 순으로 하나씩 handler에 넘김(전체를 한 번에 List로 만들지 않음). 반환값은 넘긴 글 수
+    long forEachArticle(Handler handler) throws IOException;
+
+    // 글 내용만 out에 씀(UTF-8). 대상 글이 없으면 false. flush는 호출하는 쪽에서 함
+    boolean writeContent(long id, OutputStream out) throws IOException;
+}
@@ -0,0 +1,96 @@
+package kr.or.ddit.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import kr.or.ddit.entity.Article;
+import kr.or.ddit.entity.ArticleContentConverter;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/*
+ArticleReadRepository의 JPA/JDBC 구현(ArticleRepository의 일부로 붙음)
+ 트랜잭션은 여기서 열고 닫으므로 mapped 프로필에서는 JPA 트랜잭션이 열리지 않음
+ */
+public class ArticleReadRepositoryImpl implements ArticleReadRepository {
+
+    // forEachArticle에서 드라이버가 한 번에 가져오는 행 수
+    private static final int FETCH_SIZE = 500;
+
+    // forEachArticle에서 몇 건마다 영속성 컨텍스트를 비울지
+    private static final int CLEAR_CHUNK_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 내용(content)은 지연 로딩이므로 트랜잭션 안에서 한 번 읽어서(압축 풀기) 둠
+    // 엔티티로 읽으므로 2차 캐시를 그대로 탐
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Article> findWithContentById(Long id) {
+        Article article = this.entityManager.find(Article.class, id);
+        if(article != null){
+            article.getContent();
+        }
+        return Optional.ofNullable(article);
+    }
+
+    // 앞으로만 읽는(forward-only) 커서로 한 행씩 흘려보냄
+    // 내용(content)은 지연 로딩이므로 엔티티로 읽으면 글마다 SELECT가 한 번 더 나감(N+1)
+    //  -> 내용까지 한 문장으로 읽어서 영속 상태가 아닌 Article로 만듦(더티 체킹용 스냅샷도 만들지 않음)
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachArticle(Handler handler) throws IOException {
+        long count = 0;
+
+        try(Stream<Article> stream = this.entityManager.createQuery(
+                        "select new kr.or.ddit.entity.Article(a.id, a.title, a.content, a.version, a.lastModified)"
+                                + " from Article a order by a.id", Article.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream()){
+            Iterator<Article> iterator = stream.iterator();
+            while(iterator.hasNext()){
+                handler.handle(iterator.next());
+                if(++count % CLEAR_CHUNK_SIZE == 0){
+                    this.entityManager.clear();
+                }
+            }
+        }
+
+        return count;
+    }
+
+    // DB의 압축된 LOB를 스트림으로 읽으면서 바로 풀어서 씀 -> 아주 긴 글도 내용 전체를 String/byte[]로 만들지 않음
+    // JDBC로 바로 읽으므로 트랜잭션/영속성 컨텍스트가 필요 없음
+    @Override
+    public boolean writeContent(long id, OutputStream out) throws IOException {
+        try{
+            Boolean found = this.jdbcTemplate.query("SELECT CONTENT FROM ARTICLE WHERE ID = ?", rs -> {
+                if(!rs.next()){
+                    return false;
+                }
+                try(InputStream content = ArticleContentConverter.decodingStream(rs.getBinaryStream(1))){
+                    content.transferTo(out);
+                }catch(IOException e){
+                    throw new UncheckedIOException(e);
+                }
+                return true;
+            }, id);
+            return Boolean.TRUE.equals(found);
+        }catch(UncheckedIOException e){
+            throw e.getCause();
+        }
+    }
+}
@@ -1,19 +1,93 @@
 package kr.or.ddit.repository;
 
+import jakarta.persistence.QueryHint;
+import kr.or.ddit.dto.ArticleSummary;
 import kr.or.ddit.entity.Article;
+import kr.or.ddit.entity.ArticleContentConverter;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /*
 CrudRepository는 JPA에서 제공하는 인터페이스로
 이를 상속해 엔티티를 관리(생성, 조회, 수정, 삭제)할 수 있음.
 CrudRepository에 홑화살괄호(<>)를 붙이고 그 안에 다음과 같이 2개의 제네릭 요소를 받음
+트랜잭션/스트림을 저장소 쪽에서 관리하는 읽기(상세, 전체 순회, 내용 스트리밍)는 ArticleReadRepository
  */
-public interface ArticleRepository extends CrudRepository<Article, Long> {
+public interface ArticleRepository extends CrudRepository<Article, Long>, ArticleReadRepository {
     // Iterable<T> findAll();
 
     // 부모 클래스의 메서드를 상속받아 재정의
+    // 목록 조회 결과는 쿼리 캐시에 보관(article 테이블이 바뀌면 자동으로 무효화됨)
     @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     ArrayList<Article> findAll(); // Iterable -> ArrayList 수정
+
+    // 키셋(커서) 페이지네이션
+    // WHERE id > ? ORDER BY id LIMIT ? 로 실행됨. PK 인덱스를 after부터 범위 스캔하므로
+    // OFFSET처럼 앞쪽 행을 읽고 버리지 않음 -> 테이블이 커져도 한 페이지 조회 비용이 일정함
+    // 목록에는 내용(content)이 필요 없으므로 id, title만 SELECT
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new kr.or.ddit.dto.ArticleSummary(a.id, a.title) from Article a"
+            + " where a.id > :after order by a.id")
+    List<ArticleSummary> findSummariesAfter(@Param("after") Long after, Limit limit);
+
+    // 목록 페이지용 : Pageable 한 페이지만 조회(id, title만)
+    // Page가 아니라 Slice로 받으므로 전체 건수를 세는 count 쿼리가 따로 나가지 않음(size + 1건으로 다음 페이지 유무 판단)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new kr.or.ddit.dto.ArticleSummary(a.id, a.title) from Article a")
+    Slice<ArticleSummary> findSummaries(Pageable pageable);
+
+    // id 목록의 요약(검색 결과 제목 채우기용)
+    @Query("select new kr.or.ddit.dto.ArticleSummary(a.id, a.title) from Article a where a.id in :ids")
+    List<ArticleSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 글 수정(patch) : UPDATE 한 문장 + 수정된 행 반환
+    // H2의 FINAL TABLE(data change delta table)은 UPDATE 결과 행을 SELECT처럼 돌려주므로
+    //  수정과 수정 결과 조회가 DB 왕복 1번에 끝남. 대상이 없으면 Optional.empty()
+    // Hibernate는 이 쿼리를 SELECT로 보므로 2차 캐시/쿼리 캐시를 비우지 않음 -> 호출하는 쪽(ArticleService)에서 비워야 함
+    // 네이티브 쿼리라 @Version이 자동으로 올라가지 않으므로 VERSION, LAST_MODIFIED도 여기서 갱신
+    // 아직 커밋 전인 수정 결과가 2차 캐시에 들어가지 않도록 CacheMode.IGNORE
+    // 네이티브 쿼리의 파라미터에는 ArticleContentConverter가 적용되지 않으므로 내용은 여기서 인코딩해서 넘김
+    default Optional<Article> patch(Long id, String title, String content) {
+        return patchEncoded(id, title, ArticleContentConverter.encode(content));
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    @Query(value = "SELECT * FROM FINAL TABLE (UPDATE ARTICLE"
+            + " SET TITLE = COALESCE(:title, TITLE), CONTENT = COALESCE(:content, CONTENT),"
+            + " VERSION = VERSION + 1, LAST_MODIFIED = CURRENT_TIMESTAMP"
+            + " WHERE ID = :id)", nativeQuery = true)
+    Optional<Article> patchEncoded(@Param("id") Long id, @Param("title") String title, @Param("content") byte[] content);
+
+    // 버전 조건부 수정 : DB의 VERSION이 version과 같을 때만 수정(compare-and-set)
+    // 비교와 수정이 UPDATE 한 문장 안에서 일어나므로 동시에 들어온 수정 중 하나만 성공함
+    // 대상이 없거나 버전이 다르면 Optional.empty()
+    default Optional<Article> patchIfVersion(Long id, Long version, String title, String content) {
+        return patchIfVersionEncoded(id, version, title, ArticleContentConverter.encode(content));
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    @Query(value = "SELECT * FROM FINAL TABLE (UPDATE ARTICLE"
+            + " SET TITLE = COALESCE(:title, TITLE), CONTENT = COALESCE(:content, CONTENT),"
+            + " VERSION = VERSION + 1, LAST_MODIFIED = CURRENT_TIMESTAMP"
+            + " WHERE ID = :id AND VERSION = :version)", nativeQuery = true)
+    Optional<Article> patchIfVersionEncoded(@Param("id") Long id, @Param("version") Long version,
+                                            @Param("title") String title, @Param("content") byte[] content);
+
+    // 글 삭제 : DELETE 한 문장, 삭제된 행 수 반환(0이면 대상 없음)
+    @Modifying
+    @Query("delete from Article a where a.id = :id")
+    int deleteOneById(@Param("id") Long id);
 }
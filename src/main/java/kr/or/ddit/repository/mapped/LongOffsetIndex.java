@@ -0,0 +1,156 @@
+package kr.or.ddit.repository.mapped;
+
+import java.util.Arrays;
+
+/*
+글 id -> 레코드 위치(offset) 색인. 박싱 없는 long 배열 두 개(ids, offsets)를 id 순으로 정렬해 둠
+ - 새 글 id는 항상 지금까지의 최대 id보다 크므로 보통은 배열 끝에 붙이기만 함
+ - 조회는 이진 탐색, 목록(id > after 부터 n건)은 이진 탐색 후 배열을 앞으로 훑음
+ - 삭제는 offset을 NONE으로 표시만 하고(배열을 당기지 않음), 표시된 칸이 절반을 넘으면 한 번에 정리
+ 동기화는 하지 않음. MappedArticleStore의 읽기/쓰기 잠금 안에서만 사용
+ */
+final class LongOffsetIndex {
+
+    static final long NONE = -1L;
+
+    private long[] ids;
+
+    private long[] offsets;
+
+    private int size;      // 배열에서 쓰는 칸 수(삭제 표시 포함)
+
+    private int live;      // 살아 있는 글 수
+
+    LongOffsetIndex(int initialCapacity) {
+        this.ids = new long[Math.max(initialCapacity, 16)];
+        this.offsets = new long[this.ids.length];
+    }
+
+    int live() {
+        return this.live;
+    }
+
+    // 없으면 NONE
+    long get(long id) {
+        int slot = Arrays.binarySearch(this.ids, 0, this.size, id);
+        return (slot < 0) ? NONE : this.offsets[slot];
+    }
+
+    // 예전 위치(없었으면 NONE)를 반환
+    long put(long id, long offset) {
+        if(this.size == 0 || id > this.ids[this.size - 1]){
+            ensureCapacity(this.size + 1);
+            this.ids[this.size] = id;
+            this.offsets[this.size] = offset;
+            this.size++;
+            this.live++;
+            return NONE;
+        }
+
+        int slot = Arrays.binarySearch(this.ids, 0, this.size, id);
+        if(slot >= 0){
+            long previous = this.offsets[slot];
+            this.offsets[slot] = offset;
+            if(previous == NONE){
+                this.live++;
+            }
+            return previous;
+        }
+
+        // 중간에 끼워 넣기(id를 직접 정해서 저장한 경우만)
+        int insertAt = -slot - 1;
+        ensureCapacity(this.size + 1);
+        System.arraycopy(this.ids, insertAt, this.ids, insertAt + 1, this.size - insertAt);
+        System.arraycopy(this.offsets, insertAt, this.offsets, insertAt + 1, this.size - insertAt);
+        this.ids[insertAt] = id;
+        this.offsets[insertAt] = offset;
+        this.size++;
+        this.live++;
+        return NONE;
+    }
+
+    // 위치가 expected일 때만 바꿈(압축 중에 다른 쓰기가 먼저 바꾼 글은 그대로 둠)
+    boolean replace(long id, long expected, long offset) {
+        int slot = Arrays.binarySearch(this.ids, 0, this.size, id);
+        if(slot < 0 || this.offsets[slot] != expected){
+            return false;
+        }
+        this.offsets[slot] = offset;
+        return true;
+    }
+
+    // 예전 위치(없었으면 NONE)를 반환
+    long remove(long id) {
+        int slot = Arrays.binarySearch(this.ids, 0, this.size, id);
+        if(slot < 0 || this.offsets[slot] == NONE){
+            return NONE;
+        }
+        long previous = this.offsets[slot];
+        this.offsets[slot] = NONE;
+        this.live--;
+        if(this.size - this.live > this.size / 2){
+            purge();
+        }
+        return previous;
+    }
+
+    // id보다 큰 첫 칸의 번호(삭제 표시된 칸일 수 있음)
+    int slotAfter(long id) {
+        int slot = Arrays.binarySearch(this.ids, 0, this.size, id);
+        return (slot >= 0) ? slot + 1 : -slot - 1;
+    }
+
+    // from 칸부터 살아 있는 첫 칸의 번호, 없으면 -1
+    int nextLive(int from) {
+        for(int slot = from; slot < this.size; slot++){
+            if(this.offsets[slot] != NONE){
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // 살아 있는 가장 큰 id, 없으면 NONE
+    long maxLiveId() {
+        for(int slot = this.size - 1; slot >= 0; slot--){
+            if(this.offsets[slot] != NONE){
+                return this.ids[slot];
+            }
+        }
+        return NONE;
+    }
+
+    long idAt(int slot) {
+        return this.ids[slot];
+    }
+
+    long offsetAt(int slot) {
+        return this.offsets[slot];
+    }
+
+    void clear() {
+        this.size = 0;
+        this.live = 0;
+    }
+
+    // 삭제 표시된 칸을 없애고 앞으로 당김
+    private void purge() {
+        int target = 0;
+        for(int slot = 0; slot < this.size; slot++){
+            if(this.offsets[slot] != NONE){
+                this.ids[target] = this.ids[slot];
+                this.offsets[target] = this.offsets[slot];
+                target++;
+            }
+        }
+        this.size = target;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(capacity > this.ids.length){
+            int grown = Math.max(capacity, this.ids.length + (this.ids.length >> 1));
+            this.ids = Arrays.copyOf(this.ids, grown);
+            this.offsets = Arrays.copyOf(this.offsets, grown);
+        }
+    }
+}
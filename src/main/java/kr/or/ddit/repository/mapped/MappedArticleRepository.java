@@ -0,0 +1,383 @@
+package kr.or.ddit.repository.mapped;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kr.or.ddit.dto.ArticleSummary;
+import kr.or.ddit.entity.Article;
+import kr.or.ddit.entity.ArticleContentConverter;
+import kr.or.ddit.repository.ArticleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.Assert;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+mapped 프로필(--spring.profiles.active=mapped)에서 쓰는 ArticleRepository 구현
+ JPA/H2 대신 MappedArticleStore(메모리 매핑 세그먼트 파일)에 글을 저장함
+ @Primary이므로 ArticleService 등 ArticleRepository를 주입받는 곳은 모두 이 구현을 씀
+ - JPA/H2(DataSource, EntityManagerFactory, JPA 리파지터리 빈)는 이 프로필에서도 그대로 뜸
+   처음 기동 시 옮겨 오기(import-on-empty)가 H2를 읽고, 통계/2차 캐시 비우기 등 JPA를 직접 쓰는 곳이 남아 있기 때문
+   대신 글 읽기(상세, 전체 순회, 내용 스트리밍)는 ArticleReadRepository로 받아서 JPA 트랜잭션을 열지 않음
+ - 읽기 위주 배포용 : 글 조회에 SQL/영속성 컨텍스트/2차 캐시를 거치지 않음
+ - 저장소가 비어 있으면 처음 기동 시 H2의 ARTICLE 테이블(data.sql 초기 글 또는 file 프로필 DB)에서 한 번 옮겨 옴
+ - article.mapped.compact-interval마다 쓸모없는 바이트 비율을 보고 백그라운드에서 압축
+ - 트랜잭션에 참여하지 않음(쓰기는 즉시 반영, 롤백되지 않음). 쓰기 지연(article.write-behind)은 JDBC로 H2에 쓰므로 함께 쓸 수 없음
+ 설정은 application-mapped.properties
+ */
+@Slf4j
+@Primary
+@Profile("mapped")
+@Repository
+public class MappedArticleRepository implements ArticleRepository {
+
+    // streamAll(forEachArticle)이 한 번에 읽어 오는 글 수(JPA 쪽 fetchSize와 같게)
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    // 이보다 적게 낭비되면 비율이 높아도 압축하지 않음
+    private static final long MIN_COMPACT_GARBAGE = 1024 * 1024;
+
+    @Value("${article.mapped.dir:./data/mapped}")
+    private String directory;
+
+    @Value("${article.mapped.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${article.mapped.sync:false}")
+    private boolean sync;
+
+    @Value("${article.mapped.compact-ratio:0.5}")
+    private double compactRatio;
+
+    @Value("${article.mapped.compact-interval:30s}")
+    private Duration compactInterval;
+
+    @Value("${article.mapped.import-on-empty:true}")
+    private boolean importOnEmpty;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${article.write-behind.enabled:false}")
+    private boolean writeBehind;
+
+    private MappedArticleStore store;
+
+    private ScheduledExecutorService compactor;
+
+    @PostConstruct
+    void init() throws IOException {
+        if(this.writeBehind){
+            throw new IllegalStateException("article.write-behind.enabled=true cannot be used with the mapped profile");
+        }
+        this.store = MappedArticleStore.open(Path.of(this.directory), (int) this.segmentSize.toBytes(), this.sync);
+
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "article-mapped-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = this.compactInterval.toMillis();
+        this.compactor.scheduleWithFixedDelay(this::compactIfNeeded, interval, interval, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("article.mapped.garbage.ratio", this.store, MappedArticleStore::garbageRatio)
+                .register(this.meterRegistry);
+        Gauge.builder("article.mapped.articles", this.store, MappedArticleStore::count)
+                .register(this.meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        this.compactor.shutdown();
+        this.compactor.awaitTermination(1, TimeUnit.MINUTES);
+        this.store.close();
+    }
+
+    // 빈 저장소면 H2의 글을 옮겨 옴(컨텍스트 준비가 끝난 뒤 = data.sql 실행 후, 검색 색인 만들기 전)
+    @EventListener(ContextRefreshedEvent.class)
+    public void importIfEmpty() {
+        if(!this.importOnEmpty || this.store.count() > 0){
+            return;
+        }
+        long[] imported = {0};
+        this.jdbcTemplate.query("SELECT ID, TITLE, CONTENT FROM ARTICLE ORDER BY ID", rs -> {
+            this.store.insert(rs.getLong(1), rs.getString(2), ArticleContentConverter.decode(rs.getBytes(3)));
+            imported[0]++;
+        });
+        log.info("importIfEmpty->{} articles from ARTICLE table", imported[0]);
+    }
+
+    // 지금 바로 압축(벤치마크/관리용). 되찾은 바이트 수
+    public long compact() throws IOException {
+        return this.store.compact();
+    }
+
+    // ===== CrudRepository =====
+
+    // id 또는 version이 없으면 새 글(버전 0), 있으면 저장된 버전과 같을 때만 덮어씀(버전 + 1)
+    // JPA처럼 넘겨받은 객체의 id/version/lastModified를 채워서 그대로 반환
+    @Override
+    public <S extends Article> S save(S entity) {
+        Assert.notNull(entity, "Entity must not be null");
+
+        Article saved;
+        if(entity.getId() == null || entity.getVersion() == null){
+            saved = this.store.insert(entity.getId(), entity.getTitle(), entity.getContent());
+        }else{
+            saved = this.store.update(entity.getId(), entity.getVersion(), entity.getTitle(), entity.getContent(), false);
+            if(saved == null){
+                throw new ObjectOptimisticLockingFailureException(Article.class, entity.getId());
+            }
+        }
+        entity.setId(saved.getId());
+        entity.setVersion(saved.getVersion());
+        entity.setLastModified(saved.getLastModified());
+        return entity;
+    }
+
+    @Override
+    public <S extends Article> Iterable<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        for(S entity : entities){
+            saved.add(save(entity));
+        }
+        return saved;
+    }
+
+    @Override
+    public Optional<Article> findById(Long id) {
+        Assert.notNull(id, "The given id must not be null");
+        return Optional.ofNullable(this.store.get(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        Assert.notNull(id, "The given id must not be null");
+        return this.store.exists(id);
+    }
+
+    @Override
+    public ArrayList<Article> findAll() {
+        return new ArrayList<>(this.store.articlesAfter(Long.MIN_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public Iterable<Article> findAllById(Iterable<Long> ids) {
+        List<Article> articles = new ArrayList<>();
+        for(Long id : ids){
+            Article article = (id == null) ? null : this.store.get(id);
+            if(article != null){
+                articles.add(article);
+            }
+        }
+        return articles;
+    }
+
+    @Override
+    public long count() {
+        return this.store.count();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        Assert.notNull(id, "The given id must not be null");
+        this.store.delete(id);
+    }
+
+    @Override
+    public void delete(Article entity) {
+        Assert.notNull(entity, "Entity must not be null");
+        if(entity.getId() != null){
+            this.store.delete(entity.getId());
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        for(Long id : ids){
+            deleteById(id);
+        }
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Article> entities) {
+        for(Article entity : entities){
+            delete(entity);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        this.store.clear();
+    }
+
+    // ===== ArticleRepository =====
+
+    @Override
+    public List<ArticleSummary> findSummariesAfter(Long after, Limit limit) {
+        return this.store.summariesAfter(after, limit.isLimited() ? limit.max() : Integer.MAX_VALUE);
+    }
+
+    // 정렬은 항상 id 순(ArticleService.page가 Sort.by("id")로만 부름)
+    @Override
+    public Slice<ArticleSummary> findSummaries(Pageable pageable) {
+        if(pageable.isUnpaged()){
+            return new SliceImpl<>(this.store.summariesAfter(Long.MIN_VALUE, Integer.MAX_VALUE), pageable, false);
+        }
+        List<ArticleSummary> rows = this.store.summariesFrom(pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        if(hasNext){
+            rows = rows.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<ArticleSummary> findSummariesByIdIn(Collection<Long> ids) {
+        List<ArticleSummary> summaries = new ArrayList<>(ids.size());
+        for(Long id : ids){
+            Article article = this.store.get(id);
+            if(article != null){
+                summaries.add(new ArticleSummary(article.getId(), article.getTitle()));
+            }
+        }
+        return summaries;
+    }
+
+    // 세그먼트의 글은 내용까지 읽은 상태
+    @Override
+    public Optional<Article> findWithContentById(Long id) {
+        return findById(id);
+    }
+
+    @Override
+    public long forEachArticle(Handler handler) throws IOException {
+        long count = 0;
+        Iterator<Article> iterator = streamAll().iterator();
+        while(iterator.hasNext()){
+            handler.handle(iterator.next());
+            count++;
+        }
+        return count;
+    }
+
+    // 세그먼트에는 압축하지 않은 문자열로 있으므로 글을 읽어서 그대로 씀
+    @Override
+    public boolean writeContent(long id, OutputStream out) throws IOException {
+        Article article = this.store.get(id);
+        if(article == null){
+            return false;
+        }
+        if(article.getContent() != null){
+            out.write(article.getContent().getBytes(StandardCharsets.UTF_8));
+        }
+        return true;
+    }
+
+    // 전체를 한 번에 읽지 않고 STREAM_CHUNK_SIZE건씩 id 순으로 읽음(읽는 동안의 등록/수정도 보일 수 있음)
+    private Stream<Article> streamAll() {
+        Iterator<Article> iterator = new Iterator<>() {
+
+            private long cursor = Long.MIN_VALUE;
+
+            private Iterator<Article> chunk = List.<Article>of().iterator();
+
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if(!this.chunk.hasNext() && !this.exhausted){
+                    List<Article> articles = store.articlesAfter(this.cursor, STREAM_CHUNK_SIZE);
+                    this.exhausted = articles.size() < STREAM_CHUNK_SIZE;
+                    if(!articles.isEmpty()){
+                        this.cursor = articles.get(articles.size() - 1).getId();
+                    }
+                    this.chunk = articles.iterator();
+                }
+                return this.chunk.hasNext();
+            }
+
+            @Override
+            public Article next() {
+                if(!hasNext()){
+                    throw new NoSuchElementException();
+                }
+                return this.chunk.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+
+    @Override
+    public Optional<Article> patch(Long id, String title, String content) {
+        return Optional.ofNullable(this.store.update(id, null, title, content, true));
+    }
+
+    @Override
+    public Optional<Article> patchIfVersion(Long id, Long version, String title, String content) {
+        return Optional.ofNullable(this.store.update(id, version, title, content, true));
+    }
+
+    // 세그먼트에는 내용을 압축하지 않은 문자열로 저장하므로 인코딩된 내용은 풀어서 씀
+    @Override
+    public Optional<Article> patchEncoded(Long id, String title, byte[] content) {
+        return patch(id, title, ArticleContentConverter.decode(content));
+    }
+
+    @Override
+    public Optional<Article> patchIfVersionEncoded(Long id, Long version, String title, byte[] content) {
+        return patchIfVersion(id, version, title, ArticleContentConverter.decode(content));
+    }
+
+    @Override
+    public int deleteOneById(Long id) {
+        return this.store.delete(id) ? 1 : 0;
+    }
+
+    private void compactIfNeeded() {
+        try{
+            if(this.store.garbageBytes() >= MIN_COMPACT_GARBAGE && this.store.garbageRatio() >= this.compactRatio){
+                this.store.compact();
+            }
+        }catch(Exception e){
+            // 다음 주기에 다시 시도
+            log.warn("compactIfNeeded->{}", e.getMessage(), e);
+        }
+    }
+}
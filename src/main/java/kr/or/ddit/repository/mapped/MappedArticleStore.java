@@ -0,0 +1,607 @@
+package kr.or.ddit.repository.mapped;
+
+import kr.or.ddit.dto.ArticleSummary;
+import kr.or.ddit.entity.Article;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+JPA/H2 없이 글을 파일에 저장하는 저장소(메모리 매핑 세그먼트 + 기본형 색인)
+ - 쓰기 : 활성 세그먼트 끝에 레코드를 붙이기만 함(수정도 새 레코드, 삭제는 DELETE 레코드). 다 차면 다음 세대 파일로 넘어감
+ - 읽기 : LongOffsetIndex로 위치를 찾아 매핑된 버퍼에서 바로 Article(또는 id/제목만)을 만듦. 힙에 글 사본을 두지 않음
+ - 기동 : 세그먼트를 세대 순으로 다시 읽어(replay) 색인을 만듦 -> 재시작해도 데이터 유지
+ - 압축 : 수정/삭제로 쓸모없어진 바이트가 많아지면 봉인된(더는 쓰지 않는) 세그먼트의 살아 있는 레코드만 새 파일로 복사
+   복사는 잠금 없이 하고, 색인 교체만 쓰기 잠금 안에서 함. 새 파일에는 COMPACTED 표시 -> 재기동 시 그보다 낮은 세대는 버림
+ 동시성 : 읽기는 여러 스레드가 함께(읽기 잠금), 쓰기는 한 번에 하나(쓰기 잠금)
+ 트랜잭션에 참여하지 않음. 쓰기는 호출 즉시 반영되고 롤백되지 않음
+ sync=false면 운영체제 페이지 캐시에 맡김(프로세스가 죽어도 남지만 전원이 나가면 최근 쓰기를 잃을 수 있음)
+ */
+@Slf4j
+public class MappedArticleStore implements AutoCloseable {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("articles-(\\d{8})\\.seg");
+
+    private static final String COMPACT_SUFFIX = ".compact";
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final boolean sync;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 압축은 한 번에 하나만
+    private final Object compactLock = new Object();
+
+    private final LongOffsetIndex index = new LongOffsetIndex(1024);
+
+    // 세대 순 세그먼트 목록(마지막이 활성 세그먼트). 교체는 쓰기 잠금 안에서만
+    private MappedSegment[] segments = new MappedSegment[0];
+
+    private MappedSegment active;
+
+    private long nextId = 1;
+
+    private long usedBytes;     // 모든 세그먼트의 레코드 바이트 합
+    private long liveBytes;     // 색인이 가리키는 레코드 바이트 합
+
+    private MappedArticleStore(Path directory, int segmentSize, boolean sync) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.sync = sync;
+    }
+
+    // directory의 세그먼트를 열고 색인을 만듦(없으면 빈 저장소)
+    public static MappedArticleStore open(Path directory, int segmentSize, boolean sync) throws IOException {
+        if(segmentSize <= MappedSegment.HEADER_SIZE){
+            throw new IllegalArgumentException("segment size too small : " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        MappedArticleStore store = new MappedArticleStore(directory, segmentSize, sync);
+        store.replay();
+        return store;
+    }
+
+    // ===== 읽기 =====
+
+    // 없으면 null
+    public Article get(long id) {
+        this.lock.readLock().lock();
+        try{
+            long offset = this.index.get(id);
+            return (offset == LongOffsetIndex.NONE) ? null : readArticle(offset);
+        }finally{
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public boolean exists(long id) {
+        this.lock.readLock().lock();
+        try{
+            return this.index.get(id) != LongOffsetIndex.NONE;
+        }finally{
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // id가 after보다 큰 글을 id 순으로 최대 limit건
+    public List<Article> articlesAfter(long after, int limit) {
+        this.lock.readLock().lock();
+        try{
+            List<Article> articles = new ArrayList<>(Math.min(limit, this.index.live()));
+            int slot = this.index.nextLive(this.index.slotAfter(after));
+            while(slot >= 0 && articles.size() < limit){
+                articles.add(readArticle(this.index.offsetAt(slot)));
+                slot = this.index.nextLive(slot + 1);
+            }
+            return articles;
+        }finally{
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // id가 after보다 큰 글의 id/제목을 id 순으로 최대 limit건(내용은 읽지 않음)
+    public List<ArticleSummary> summariesAfter(long after, int limit) {
+        this.lock.readLock().lock();
+        try{
+            return summaries(this.index.nextLive(this.index.slotAfter(after)), limit);
+        }finally{
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // id 순으로 skip건을 건너뛴 뒤 최대 limit건(페이지 번호 방식)
+    public List<ArticleSummary> summariesFrom(long skip, int limit) {
+        this.lock.readLock().lock();
+        try{
+            int slot = this.index.nextLive(0);
+            for(long skipped = 0; skipped < skip && slot >= 0; skipped++){
+                slot = this.index.nextLive(slot + 1);
+            }
+            return summaries(slot, limit);
+        }finally{
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public long count() {
+        this.lock.readLock().lock();
+        try{
+            return this.index.live();
+        }finally{
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // 글이 없으면 null
+    public Long maxId() {
+        this.lock.readLock().lock();
+        try{
+            long maxId = this.index.maxLiveId();
+            return (maxId == LongOffsetIndex.NONE) ? null : maxId;
+        }finally{
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // 쓸모없는 바이트 비율(0 ~ 1)
+    public double garbageRatio() {
+        this.lock.readLock().lock();
+        try{
+            return (this.usedBytes == 0) ? 0 : (double) (this.usedBytes - this.liveBytes) / this.usedBytes;
+        }finally{
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public long garbageBytes() {
+        this.lock.readLock().lock();
+        try{
+            return this.usedBytes - this.liveBytes;
+        }finally{
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // ===== 쓰기 =====
+
+    // 새 글 저장. id가 null이면 새 id를 발급, 있으면 그 id로 저장(이미 있으면 덮어씀). 버전은 0
+    public Article insert(Long id, String title, String content) {
+        this.lock.writeLock().lock();
+        try{
+            long articleId = (id == null) ? this.nextId : id;
+            return write(articleId, 0L, title, content);
+        }finally{
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    // 글 수정. expectedVersion이 있으면 저장된 버전과 같을 때만 수정
+    // patch=true면 null인 title/content는 기존 값 유지
+    // 대상이 없거나 버전이 다르면 null
+    public Article update(long id, Long expectedVersion, String title, String content, boolean patch) {
+        this.lock.writeLock().lock();
+        try{
+            long offset = this.index.get(id);
+            if(offset == LongOffsetIndex.NONE){
+                return null;
+            }
+            long version = versionAt(offset);
+            if(expectedVersion != null && expectedVersion != version){
+                return null;
+            }
+            if(patch){
+                Article current = readArticle(offset);
+                title = (title == null) ? current.getTitle() : title;
+                content = (content == null) ? current.getContent() : content;
+            }
+            return write(id, version + 1, title, content);
+        }finally{
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    // 저장된 글의 버전, 없으면 null
+    public Long version(long id) {
+        this.lock.readLock().lock();
+        try{
+            long offset = this.index.get(id);
+            return (offset == LongOffsetIndex.NONE) ? null : versionAt(offset);
+        }finally{
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // 삭제했으면 true, 없으면 false
+    public boolean delete(long id) {
+        this.lock.writeLock().lock();
+        try{
+            if(this.index.get(id) == LongOffsetIndex.NONE){
+                return false;
+            }
+            int position = this.active.appendDelete(id);
+            if(position < 0){
+                roll();
+                position = this.active.appendDelete(id);
+            }
+            afterAppend(position);
+            apply(this.active, position);
+            return true;
+        }finally{
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    // 모든 글 삭제(세그먼트 파일까지 지우고 빈 저장소로 다시 시작). 발급한 id는 다시 쓰지 않음
+    public void clear() {
+        synchronized(this.compactLock){
+            this.lock.writeLock().lock();
+            try{
+                for(MappedSegment segment : this.segments){
+                    closeQuietly(segment);
+                    Files.deleteIfExists(segment.path);
+                }
+                this.index.clear();
+                this.usedBytes = 0;
+                this.liveBytes = 0;
+                this.segments = new MappedSegment[0];
+                this.active = null;
+                roll();
+            }catch(IOException e){
+                throw new UncheckedIOException(e);
+            }finally{
+                this.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // ===== 압축 =====
+
+    // 봉인된 세그먼트의 살아 있는 레코드만 새 세그먼트로 복사하고 예전 파일을 지움. 되찾은 바이트 수 반환
+    public long compact() throws IOException {
+        synchronized(this.compactLock){
+            long started = System.nanoTime();
+
+            // 1. 활성 세그먼트를 봉인하고 압축 대상(앞쪽부터 2GB 안쪽까지의 봉인된 세그먼트)을 정함
+            List<MappedSegment> sources = new ArrayList<>();
+            long sourceBytes = 0;
+            long nextIdFloor;
+            this.lock.writeLock().lock();
+            try{
+                if(this.active.writePosition() > MappedSegment.HEADER_SIZE){
+                    roll();
+                }
+                for(MappedSegment segment : this.segments){
+                    long bytes = segment.writePosition() - MappedSegment.HEADER_SIZE;
+                    if(segment == this.active || (!sources.isEmpty()
+                            && sourceBytes + bytes > Integer.MAX_VALUE - MappedSegment.HEADER_SIZE)){
+                        break;
+                    }
+                    sources.add(segment);
+                    sourceBytes += bytes;
+                }
+                nextIdFloor = this.nextId;
+            }finally{
+                this.lock.writeLock().unlock();
+            }
+            if(sources.isEmpty()){
+                return 0;
+            }
+
+            // 2. 잠금 없이 복사(봉인된 세그먼트는 바뀌지 않음). 복사 시점에 색인이 가리키는 레코드만 살아 있는 것
+            int generation = sources.get(sources.size() - 1).generation;
+            Path target = segmentPath(generation);
+            Path temporary = Path.of(target + COMPACT_SUFFIX);
+            Files.deleteIfExists(temporary);
+            MappedSegment output = MappedSegment.create(generation, temporary,
+                    (int) (MappedSegment.HEADER_SIZE + sourceBytes), MappedSegment.FLAG_COMPACTED, nextIdFloor);
+
+            long[] moved = new long[64 * 3];   // (id, 예전 위치, 새 위치) 반복
+            int movedCount = 0;
+            for(MappedSegment source : sources){
+                int position = MappedSegment.HEADER_SIZE;
+                while(position < source.writePosition()){
+                    int size = recordSize(source, position);
+                    int body = MappedSegment.body(position);
+                    if(source.buffer.get(body + MappedSegment.TYPE) == MappedSegment.PUT){
+                        long id = source.buffer.getLong(body + MappedSegment.ID);
+                        long offset = offset(source.generation, position);
+                        if(isCurrent(id, offset)){
+                            int copied = output.appendRaw(source.buffer, position, size);
+                            if(movedCount + 3 > moved.length){
+                                moved = Arrays.copyOf(moved, moved.length * 2);
+                            }
+                            moved[movedCount++] = id;
+                            moved[movedCount++] = offset;
+                            moved[movedCount++] = copied;
+                        }
+                    }
+                    position += size;
+                }
+            }
+            output.force();
+
+            // 3. 새 파일로 바꾸고 색인의 위치를 옮김(그 사이 수정/삭제된 글은 이미 새 위치를 가리키므로 그대로 둠)
+            long reclaimed;
+            this.lock.writeLock().lock();
+            try{
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                output.path = target;
+                for(int i = 0; i < movedCount; i += 3){
+                    this.index.replace(moved[i], moved[i + 1], offset(generation, (int) moved[i + 2]));
+                }
+
+                MappedSegment[] remaining = new MappedSegment[this.segments.length - sources.size() + 1];
+                remaining[0] = output;
+                System.arraycopy(this.segments, sources.size(), remaining, 1, remaining.length - 1);
+                this.segments = remaining;
+
+                long outputBytes = output.writePosition() - MappedSegment.HEADER_SIZE;
+                reclaimed = sourceBytes - outputBytes;
+                this.usedBytes -= reclaimed;
+            }finally{
+                this.lock.writeLock().unlock();
+            }
+
+            // 4. 예전 파일 삭제(같은 세대 파일은 이미 새 파일로 바뀜)
+            // 매핑은 GC가 버퍼를 회수할 때 풀리므로 디스크 공간도 그때 돌아옴
+            for(MappedSegment source : sources){
+                closeQuietly(source);
+                if(source.generation != generation){
+                    Files.deleteIfExists(source.path);
+                }
+            }
+
+            log.info("compact->segments : {}, moved : {}, reclaimed : {} bytes, {}ms", sources.size(), movedCount / 3,
+                    reclaimed, (System.nanoTime() - started) / 1_000_000);
+            return reclaimed;
+        }
+    }
+
+    // 디스크에 기록하고 파일을 닫음
+    @Override
+    public void close() {
+        synchronized(this.compactLock){
+            this.lock.writeLock().lock();
+            try{
+                for(MappedSegment segment : this.segments){
+                    if(segment == this.active){
+                        segment.force();
+                    }
+                    closeQuietly(segment);
+                }
+                this.segments = new MappedSegment[0];
+            }finally{
+                this.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // ===== 내부 =====
+
+    private void replay() throws IOException {
+        List<Integer> generations = new ArrayList<>();
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(this.directory)){
+            for(Path file : files){
+                String name = file.getFileName().toString();
+                Matcher matcher = SEGMENT_NAME.matcher(name);
+                if(matcher.matches()){
+                    generations.add(Integer.parseInt(matcher.group(1)));
+                }else if(name.endsWith(COMPACT_SUFFIX)){
+                    // 압축 도중 중단된 파일
+                    Files.delete(file);
+                }
+            }
+        }
+        generations.sort(null);
+
+        List<MappedSegment> opened = new ArrayList<>();
+        for(int i = 0; i < generations.size(); i++){
+            boolean last = (i == generations.size() - 1);
+            MappedSegment segment = MappedSegment.open(generations.get(i), segmentPath(generations.get(i)),
+                    last ? this.segmentSize : 0);
+            // 압축 결과 파일이 있으면 그보다 낮은 세대는 압축 후 지우지 못한 파일
+            if((segment.flags() & MappedSegment.FLAG_COMPACTED) != 0){
+                for(MappedSegment older : opened){
+                    closeQuietly(older);
+                    Files.deleteIfExists(older.path);
+                }
+                opened.clear();
+            }
+            opened.add(segment);
+        }
+
+        this.segments = opened.toArray(new MappedSegment[0]);
+        for(MappedSegment segment : this.segments){
+            this.nextId = Math.max(this.nextId, segment.nextIdFloor());
+            int position = MappedSegment.HEADER_SIZE;
+            int size;
+            while((size = segment.recordSizeAt(position)) > 0){
+                apply(segment, position);
+                position += size;
+            }
+            segment.writePosition(position);
+        }
+
+        if(this.segments.length == 0){
+            roll();
+        }else{
+            this.active = this.segments[this.segments.length - 1];
+        }
+
+        log.info("replay->{} : segments : {}, articles : {}, garbage : {} bytes", this.directory,
+                this.segments.length, this.index.live(), this.usedBytes - this.liveBytes);
+    }
+
+    // 레코드 하나를 색인/통계에 반영(기동 시 다시 읽을 때와 쓸 때 공통)
+    private void apply(MappedSegment segment, int position) {
+        int size = recordSize(segment, position);
+        int body = MappedSegment.body(position);
+        long id = segment.buffer.getLong(body + MappedSegment.ID);
+        this.usedBytes += size;
+        this.nextId = Math.max(this.nextId, id + 1);
+
+        long previous;
+        if(segment.buffer.get(body + MappedSegment.TYPE) == MappedSegment.PUT){
+            previous = this.index.put(id, offset(segment.generation, position));
+            this.liveBytes += size;
+        }else{
+            previous = this.index.remove(id);
+        }
+
+        if(previous != LongOffsetIndex.NONE){
+            this.liveBytes -= recordSize(segment(previous), position(previous));
+        }
+    }
+
+    private Article write(long id, long version, String title, String content) {
+        Instant now = Instant.now();
+        byte[] titleBytes = (title == null) ? null : title.getBytes(StandardCharsets.UTF_8);
+        byte[] contentBytes = (content == null) ? null : content.getBytes(StandardCharsets.UTF_8);
+
+        int position = this.active.appendPut(id, version, now.getEpochSecond(), now.getNano(), titleBytes, contentBytes);
+        if(position < 0){
+            roll();
+            position = this.active.appendPut(id, version, now.getEpochSecond(), now.getNano(), titleBytes, contentBytes);
+            if(position < 0){
+                throw new IllegalArgumentException("article " + id + " does not fit in a segment of " + this.segmentSize + " bytes");
+            }
+        }
+        afterAppend(position);
+        apply(this.active, position);
+
+        Article article = new Article(id, title, content);
+        article.setVersion(version);
+        article.setLastModified(now);
+        return article;
+    }
+
+    private void afterAppend(int position) {
+        if(this.sync){
+            this.active.force(position);
+        }
+    }
+
+    // 활성 세그먼트를 봉인하고 다음 세대 파일을 새 활성 세그먼트로
+    private void roll() {
+        try{
+            int generation = 1;
+            if(this.active != null){
+                this.active.force();
+                generation = this.active.generation + 1;
+            }
+            MappedSegment segment = MappedSegment.create(generation, segmentPath(generation), this.segmentSize,
+                    0, this.nextId);
+            MappedSegment[] grown = Arrays.copyOf(this.segments, this.segments.length + 1);
+            grown[grown.length - 1] = segment;
+            this.segments = grown;
+            this.active = segment;
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean isCurrent(long id, long offset) {
+        this.lock.readLock().lock();
+        try{
+            return this.index.get(id) == offset;
+        }finally{
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private List<ArticleSummary> summaries(int slot, int limit) {
+        List<ArticleSummary> summaries = new ArrayList<>(Math.min(limit, this.index.live()));
+        while(slot >= 0 && summaries.size() < limit){
+            long offset = this.index.offsetAt(slot);
+            ByteBuffer buffer = segment(offset).buffer;
+            int body = MappedSegment.body(position(offset));
+            summaries.add(new ArticleSummary(this.index.idAt(slot), readString(buffer, body + MappedSegment.TITLE)));
+            slot = this.index.nextLive(slot + 1);
+        }
+        return summaries;
+    }
+
+    // 매핑된 버퍼에서 바로 Article을 만듦
+    private Article readArticle(long offset) {
+        ByteBuffer buffer = segment(offset).buffer;
+        int body = MappedSegment.body(position(offset));
+
+        int at = body + MappedSegment.TITLE;
+        String title = readString(buffer, at);
+        at += 4 + Math.max(buffer.getInt(at), 0);
+        String content = readString(buffer, at);
+
+        Article article = new Article(buffer.getLong(body + MappedSegment.ID), title, content);
+        article.setVersion(buffer.getLong(body + MappedSegment.VERSION));
+        article.setLastModified(Instant.ofEpochSecond(buffer.getLong(body + MappedSegment.SECONDS),
+                buffer.getInt(body + MappedSegment.NANOS)));
+        return article;
+    }
+
+    private long versionAt(long offset) {
+        return segment(offset).buffer.getLong(MappedSegment.body(position(offset)) + MappedSegment.VERSION);
+    }
+
+    private static String readString(ByteBuffer buffer, int at) {
+        int length = buffer.getInt(at);
+        if(length < 0){
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(at + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int recordSize(MappedSegment segment, int position) {
+        return MappedSegment.RECORD_HEADER_SIZE + segment.buffer.getInt(position);
+    }
+
+    // 위치(long) = 상위 32비트 세대 + 하위 32비트 파일 안 위치
+    private static long offset(int generation, int position) {
+        return ((long) generation << 32) | position;
+    }
+
+    private static int position(long offset) {
+        return (int) offset;
+    }
+
+    // 세그먼트는 보통 몇 개뿐이므로 배열을 차례로 찾음
+    private MappedSegment segment(long offset) {
+        int generation = (int) (offset >>> 32);
+        for(MappedSegment segment : this.segments){
+            if(segment.generation == generation){
+                return segment;
+            }
+        }
+        throw new IllegalStateException("segment " + generation + " not found");
+    }
+
+    private Path segmentPath(int generation) {
+        return this.directory.resolve(String.format("articles-%08d.seg", generation));
+    }
+
+    private static void closeQuietly(MappedSegment segment) {
+        try{
+            segment.close();
+        }catch(IOException e){
+            log.warn("close->{} : {}", segment.path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package kr.or.ddit.repository.mapped;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/*
+세그먼트 파일 하나(articles-<세대>.seg)를 메모리에 매핑(mmap)한 것
+ 파일 머리(HEADER_SIZE) : 매직 값, 형식 버전, 플래그(COMPACTED : 압축 결과 -> 이보다 낮은 세대는 무시), 다음 id 하한
+ 그 뒤로 레코드를 이어 붙이기만 함(append-only)
+ 레코드 : [int 본문 길이][int CRC32C(본문)][본문]
+ 본문   : [byte 종류(PUT/DELETE)][long id] + PUT이면 [long version][long 수정 초][int 수정 나노초]
+          [int 제목 길이][제목 UTF-8][int 내용 길이][내용 UTF-8]  (null이면 길이 -1)
+ 길이 0(아직 쓰지 않은 영역)이나 CRC가 맞지 않는 레코드(쓰다가 중단됨)에서 파일의 끝으로 봄
+
+ 읽기는 모두 절대 위치(get(int index))로 하므로 position을 공유하지 않고 여러 스레드가 동시에 읽을 수 있음
+ 쓰기는 MappedArticleStore의 쓰기 잠금 안에서 한 스레드만 함
+ */
+final class MappedSegment implements AutoCloseable {
+
+    static final int MAGIC = 0x44444954;   // "DDIT"
+    static final int FORMAT = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_HEADER_SIZE = 8;
+
+    static final int FLAG_COMPACTED = 1;
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    // 본문 안 필드 위치
+    static final int TYPE = 0;
+    static final int ID = 1;
+    static final int VERSION = 9;
+    static final int SECONDS = 17;
+    static final int NANOS = 25;
+    static final int TITLE = 29;
+
+    static final int DELETE_BODY_SIZE = 9;
+
+    final int generation;
+
+    // 압축 결과 파일은 다 쓴 뒤 이름을 바꾸므로 final이 아님(쓰기 잠금 안에서만 바꿈)
+    Path path;
+
+    private final FileChannel channel;
+
+    final MappedByteBuffer buffer;
+
+    private int writePosition;
+
+    private MappedSegment(int generation, Path path, FileChannel channel, MappedByteBuffer buffer, int writePosition) {
+        this.generation = generation;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.writePosition = writePosition;
+    }
+
+    // 새 세그먼트 파일(capacity 바이트로 매핑, 디스크에는 쓴 만큼만 차지함)
+    static MappedSegment create(int generation, Path path, int capacity, int flags, long nextId) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT);
+        buffer.putInt(8, flags);
+        buffer.putLong(16, nextId);
+        return new MappedSegment(generation, path, channel, buffer, HEADER_SIZE);
+    }
+
+    // 기존 세그먼트 파일. 쓰기 위치는 scan()으로 찾은 끝으로 정해야 함
+    static MappedSegment open(int generation, Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(channel.size(), capacity);
+        if(size > Integer.MAX_VALUE){
+            channel.close();
+            throw new IOException("segment too large : " + path);
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if(buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT){
+            channel.close();
+            throw new IOException("not an article segment : " + path);
+        }
+        return new MappedSegment(generation, path, channel, buffer, HEADER_SIZE);
+    }
+
+    int flags() {
+        return this.buffer.getInt(8);
+    }
+
+    long nextIdFloor() {
+        return this.buffer.getLong(16);
+    }
+
+    int writePosition() {
+        return this.writePosition;
+    }
+
+    void writePosition(int writePosition) {
+        this.writePosition = writePosition;
+    }
+
+    int remaining() {
+        return this.buffer.capacity() - this.writePosition;
+    }
+
+    // position의 레코드가 온전하면 레코드 전체 길이, 끝이거나 깨졌으면 -1
+    int recordSizeAt(int position) {
+        if(position + RECORD_HEADER_SIZE > this.buffer.capacity()){
+            return -1;
+        }
+        int bodySize = this.buffer.getInt(position);
+        if(bodySize < DELETE_BODY_SIZE || position + RECORD_HEADER_SIZE + bodySize > this.buffer.capacity()){
+            return -1;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(this.buffer.slice(position + RECORD_HEADER_SIZE, bodySize));
+        if((int) crc.getValue() != this.buffer.getInt(position + 4)){
+            return -1;
+        }
+        return RECORD_HEADER_SIZE + bodySize;
+    }
+
+    // 레코드 본문의 시작 위치
+    static int body(int position) {
+        return position + RECORD_HEADER_SIZE;
+    }
+
+    // PUT 레코드 추가, 레코드 시작 위치 반환(공간이 모자라면 -1)
+    int appendPut(long id, long version, long seconds, int nanos, byte[] title, byte[] content) {
+        int bodySize = TITLE + 4 + length(title) + 4 + length(content);
+        int position = this.writePosition;
+        if(RECORD_HEADER_SIZE + bodySize > remaining()){
+            return -1;
+        }
+
+        int at = body(position);
+        this.buffer.put(at + TYPE, PUT);
+        this.buffer.putLong(at + ID, id);
+        this.buffer.putLong(at + VERSION, version);
+        this.buffer.putLong(at + SECONDS, seconds);
+        this.buffer.putInt(at + NANOS, nanos);
+        at = putString(at + TITLE, title);
+        putString(at, content);
+
+        finish(position, bodySize);
+        return position;
+    }
+
+    // DELETE 레코드 추가, 레코드 시작 위치 반환(공간이 모자라면 -1)
+    int appendDelete(long id) {
+        int position = this.writePosition;
+        if(RECORD_HEADER_SIZE + DELETE_BODY_SIZE > remaining()){
+            return -1;
+        }
+        int at = body(position);
+        this.buffer.put(at + TYPE, DELETE);
+        this.buffer.putLong(at + ID, id);
+
+        finish(position, DELETE_BODY_SIZE);
+        return position;
+    }
+
+    // 다른 세그먼트의 레코드를 바이트 그대로 복사(압축용), 레코드 시작 위치 반환(공간이 모자라면 -1)
+    int appendRaw(ByteBuffer source, int position, int recordSize) {
+        int target = this.writePosition;
+        if(recordSize > remaining()){
+            return -1;
+        }
+        this.buffer.put(target, source, position, recordSize);
+        this.writePosition = target + recordSize;
+        return target;
+    }
+
+    // 디스크에 기록(from ~ 쓰기 위치)
+    void force(int from) {
+        if(this.writePosition > from){
+            this.buffer.force(from, this.writePosition - from);
+        }
+    }
+
+    void force() {
+        this.buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private void finish(int position, int bodySize) {
+        CRC32C crc = new CRC32C();
+        crc.update(this.buffer.slice(body(position), bodySize));
+        this.buffer.putInt(position + 4, (int) crc.getValue());
+        // 길이는 마지막에 씀 -> 길이가 보이는 레코드는 본문까지 다 쓴 것
+        this.buffer.putInt(position, bodySize);
+        this.writePosition = position + RECORD_HEADER_SIZE + bodySize;
+    }
+
+    private int putString(int at, byte[] bytes) {
+        if(bytes == null){
+            this.buffer.putInt(at, -1);
+            return at + 4;
+        }
+        this.buffer.putInt(at, bytes.length);
+        this.buffer.put(at + 4, bytes);
+        return at + 4 + bytes.length;
+    }
+
+    private static int length(byte[] bytes) {
+        return (bytes == null) ? 0 : bytes.length;
+    }
+}
@@ -0,0 +1,453 @@
+package kr.or.ddit.search;
+
+import kr.or.ddit.change.ArticleChangedEvent;
+import kr.or.ddit.entity.Article;
+import kr.or.ddit.repository.ArticleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+글 제목/내용 전문 검색용 역색인(inverted index)
+  단어(토큰) -> 그 단어가 들어 있는 문서 번호 목록(posting list)
+
+- 문서 번호(ordinal)는 글이 색인될 때마다 0, 1, 2.. 순서로 새로 발급함. 그래서 posting list는 항상 정렬되어 있음
+- posting list는 Integer 컬렉션 대신 int[] 배열(문서 번호, 단어 빈도)로 저장해서 메모리를 적게 씀
+- 수정/삭제된 글의 예전 문서 번호는 deleted에 표시만 하고, 일정량 쌓이면 한꺼번에 정리함(compact)
+  살아 있는 문서에 0부터 빈틈없이 번호를 다시 매기고 posting list/문서별 배열을 그 번호로 고침
+  -> 수정이 계속되어도 배열과 문서 번호가 (살아 있는 문서 수 + 정리 전 삭제 수) 이상으로 커지지 않음
+- 삭제된 글 id는 tombstones에 남김(시퀀스 id는 다시 쓰지 않으므로 id만 기억하면 됨)
+  삭제보다 늦게 도착한 수정 이벤트가 삭제된 글을 되살리지 않음
+- 순위는 BM25 점수, 제목에 나온 단어는 TITLE_WEIGHT 배로 셈
+- 서버 기동 시 ArticleRepository에서 전체를 읽어 만들고, 이후에는 커밋된 ArticleChangedEvent로만 갱신함
+  (롤백된 등록/수정/삭제가 색인에 남지 않음). 같은 글의 더 낮은 버전은 반영하지 않음(늦게 도착한 이벤트)
+- 재구성(rebuild)은 새 색인을 따로 만들고, 그동안 들어온 변경을 모아 두었다가 새 색인에 다시 적용한 뒤 바꿔 끼움
+  (재구성 중에도 검색은 예전 색인으로 계속 됨. 스냅샷을 읽는 사이 삭제/수정된 글이 되살아나지 않음)
+ */
+@Slf4j
+@Component
+public class ArticleSearchIndex {
+
+    // BM25 파라미터
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final int TITLE_WEIGHT = 2;
+
+    // 삭제 표시된 문서가 이 수 이상이고 살아 있는 문서 수보다 많아지면 compact
+    private static final int COMPACT_THRESHOLD = 1000;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 지금 검색에 쓰는 색인
+    private IndexData data = new IndexData();
+
+    // 재구성 중에 들어온 변경(재구성 중이 아니면 null)
+    private List<Change> pending;
+
+    // 서버 기동이 끝나면 DB의 전체 글로 색인을 만듦(스트림으로 읽으므로 전체 목록을 메모리에 올리지 않음)
+    // 기동을 막지 않도록 applicationTaskExecutor(virtual 프로필에서는 가상 스레드)에서 실행
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+
+        // 스냅샷을 읽기 시작하기 전부터 변경을 모아 둠 -> 스냅샷 이후의 변경이 빠지지 않음
+        this.lock.writeLock().lock();
+        try{
+            if(this.pending != null){
+                log.info("rebuild->already running");
+                return;
+            }
+            this.pending = new ArrayList<>();
+        }finally{
+            this.lock.writeLock().unlock();
+        }
+
+        IndexData fresh = new IndexData();
+        try{
+            // 트랜잭션/커서와 영속성 컨텍스트 비우기는 저장소가 관리함(여기서 넘기는 handler는 IOException을 던지지 않음)
+            try{
+                this.articleRepository.forEachArticle(article -> fresh.apply(change(article, false)));
+            }catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+        }catch(RuntimeException e){
+            // 실패하면 지금 색인을 그대로 씀
+            this.lock.writeLock().lock();
+            try{
+                this.pending = null;
+            }finally{
+                this.lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int replayed;
+        this.lock.writeLock().lock();
+        try{
+            replayed = this.pending.size();
+            // 스냅샷 전에 삭제된 글도 계속 되살리지 않도록 삭제 기록을 넘겨받음
+            fresh.tombstones.addAll(this.data.tombstones);
+            for(Change change : this.pending){
+                fresh.apply(change);
+            }
+            this.data = fresh;
+            this.pending = null;
+        }finally{
+            this.lock.writeLock().unlock();
+        }
+
+        log.info("rebuild->documents : {}, terms : {}, replayed : {}, {}ms", fresh.liveCount, fresh.postings.size(),
+                replayed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // 커밋된 글 변경을 색인에 반영(트랜잭션 밖에서 발행되면 바로)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ArticleChangedEvent event) {
+        if(event.type() == ArticleChangedEvent.Type.DELETED){
+            remove(event.id());
+        }else{
+            add(event.article(), event.type() == ArticleChangedEvent.Type.CREATED);
+        }
+    }
+
+    // 글 색인(이미 색인된 글이면 예전 내용을 지우고 다시 색인). 삭제된 글이면 반영하지 않음
+    public void add(Article article) {
+        add(article, false);
+    }
+
+    private void add(Article article, boolean created) {
+        if(article == null || article.getId() == null){
+            return;
+        }
+        // 토큰화는 락 밖에서 미리 해 둠
+        apply(change(article, created));
+    }
+
+    // 색인에서 글 제거
+    public void remove(Long articleId) {
+        if(articleId == null){
+            return;
+        }
+        apply(new Change(articleId, -1, false, null, 0));
+    }
+
+    private void apply(Change change) {
+        this.lock.writeLock().lock();
+        try{
+            this.data.apply(change);
+            if(this.pending != null){
+                this.pending.add(change);
+            }
+        }finally{
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /*
+    검색 : 검색어의 토큰 중 하나라도 들어 있는 글을 BM25 점수 순으로 정렬
+    offset부터 limit개를 반환하고, total은 일치한 전체 글 수
+
+    posting list들이 문서 번호 순으로 정렬되어 있으므로 여러 목록을 동시에 앞에서부터 훑으며(merge)
+    문서별 점수를 합산함 -> 문서 수만큼의 점수 배열을 만들지 않고, 상위 offset + limit개만 힙에 유지
+    offset + limit의 상한은 호출하는 쪽(ArticleService.MAX_SEARCH_WINDOW)에서 막음
+     */
+    public Result search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(ArticleTokenizer.tokenize(query)));
+        if(terms.isEmpty() || offset < 0 || limit <= 0){
+            return new Result(0, List.of());
+        }
+        // int 범위를 넘지 않도록 long으로 계산
+        long k = (long) offset + limit;
+
+        this.lock.readLock().lock();
+        try{
+            IndexData data = this.data;
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            List<Float> idfList = new ArrayList<>(terms.size());
+            for(String term : terms){
+                PostingList list = data.postings.get(term);
+                if(list == null){
+                    continue;
+                }
+                lists.add(list);
+                // df에는 아직 걸러내지 않은 삭제 문서가 섞여 있을 수 있으므로 음수가 되지 않게 보정
+                int df = list.size;
+                double n = Math.max(data.liveCount - df, 0);
+                idfList.add((float) Math.log(1 + (n + 0.5) / (df + 0.5)));
+            }
+
+            int listCount = lists.size();
+            int[] cursors = new int[listCount];
+            float avgLength = (data.liveCount == 0) ? 1f : (float) data.totalLength / data.liveCount;
+
+            // 점수가 낮은 것이 맨 위에 오는 힙(상위 k개 유지)
+            // k만큼 미리 잡지 않음 : 일치한 글 수만큼만 커짐
+            PriorityQueue<Hit> heap = new PriorityQueue<>(WORST_FIRST);
+            int total = 0;
+
+            while(true){
+                int doc = Integer.MAX_VALUE;
+                for(int i = 0; i < listCount; i++){
+                    PostingList list = lists.get(i);
+                    if(cursors[i] < list.size && list.docs[cursors[i]] < doc){
+                        doc = list.docs[cursors[i]];
+                    }
+                }
+                if(doc == Integer.MAX_VALUE){
+                    break;
+                }
+
+                float norm = K1 * (1 - B + B * data.docLengths[doc] / avgLength);
+                float score = 0f;
+                for(int i = 0; i < listCount; i++){
+                    PostingList list = lists.get(i);
+                    if(cursors[i] < list.size && list.docs[cursors[i]] == doc){
+                        int tf = list.freqs[cursors[i]];
+                        score += idfList.get(i) * tf * (K1 + 1) / (tf + norm);
+                        cursors[i]++;
+                    }
+                }
+
+                if(data.deleted.get(doc)){
+                    continue;
+                }
+                total++;
+
+                Hit hit = new Hit(data.articleIds[doc], score);
+                if(heap.size() < k){
+                    heap.offer(hit);
+                }else if(WORST_FIRST.compare(hit, heap.peek()) > 0){
+                    heap.poll();
+                    heap.offer(hit);
+                }
+            }
+
+            Hit[] ranked = heap.toArray(new Hit[0]);
+            Arrays.sort(ranked, WORST_FIRST.reversed());
+            List<Hit> hits = (offset >= ranked.length)
+                    ? List.of()
+                    : Arrays.asList(ranked).subList(offset, ranked.length);
+
+            return new Result(total, hits);
+        }finally{
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // 살아 있는 문서 수
+    public int size() {
+        this.lock.readLock().lock();
+        try{
+            return this.data.liveCount;
+        }finally{
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // 글 -> 색인할 내용(토큰별 빈도, 문서 길이). 버전을 모르면 -1
+    private static Change change(Article article, boolean created) {
+        Map<String, int[]> termFreqs = new HashMap<>();
+        int length = countTerms(article.getTitle(), TITLE_WEIGHT, termFreqs)
+                + countTerms(article.getContent(), 1, termFreqs);
+        long version = (article.getVersion() == null) ? -1 : article.getVersion();
+        return new Change(article.getId(), version, created, termFreqs, length);
+    }
+
+    // 토큰별 빈도를 termFreqs에 더하고, 더한 토큰 수(가중치 포함)를 반환
+    private static int countTerms(String text, int weight, Map<String, int[]> termFreqs) {
+        List<String> tokens = ArticleTokenizer.tokenize(text);
+        for(String token : tokens){
+            termFreqs.computeIfAbsent(token, t -> new int[1])[0] += weight;
+        }
+        return tokens.size() * weight;
+    }
+
+    // 점수 오름차순, 점수가 같으면 id가 큰 글이 먼저(= 낮은 순위)
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+            .thenComparing(Comparator.comparingLong(Hit::articleId).reversed());
+
+    public record Hit(long articleId, float score) {}
+
+    public record Result(int total, List<Hit> hits) {}
+
+    // 색인에 적용할 변경 한 건. termFreqs가 null이면 삭제, created는 등록 이벤트
+    private record Change(long articleId, long version, boolean created, Map<String, int[]> termFreqs, int length) {}
+
+    // 색인 한 벌. 지금 색인은 lock 안에서만, 재구성 중인 새 색인은 rebuild 스레드에서만 고침
+    static final class IndexData {
+        // 단어 -> posting list
+        final Map<String, PostingList> postings = new HashMap<>();
+
+        // 글 id -> 현재 문서 번호
+        final Map<Long, Integer> ordinalById = new HashMap<>();
+
+        // 문서 번호 -> 글 id / 문서 길이(토큰 수) / 글 버전(모르면 -1)
+        long[] articleIds = new long[1024];
+        int[] docLengths = new int[1024];
+        long[] versions = new long[1024];
+
+        final BitSet deleted = new BitSet();
+
+        // 삭제된 글 id
+        final Set<Long> tombstones = new HashSet<>();
+
+        int docCount;          // 발급한 문서 번호 수(삭제 포함)
+        int liveCount;         // 살아 있는 문서 수
+        long totalLength;      // 살아 있는 문서들의 길이 합(평균 길이 계산용)
+        int deletedSinceCompact;
+
+        void apply(Change change) {
+            if(change.termFreqs() == null){
+                this.tombstones.add(change.articleId());
+                remove(change.articleId());
+                return;
+            }
+            // 삭제된 글의 늦게 도착한 수정
+            if(!change.created() && this.tombstones.contains(change.articleId())){
+                return;
+            }
+
+            // 이미 더 새 버전이 색인되어 있으면 건너뜀(버전을 모르는 경우는 항상 반영)
+            Integer current = this.ordinalById.get(change.articleId());
+            if(current != null && change.version() >= 0 && this.versions[current] > change.version()){
+                return;
+            }
+            remove(change.articleId());
+
+            int doc = this.docCount++;
+            ensureCapacity(doc + 1);
+            this.articleIds[doc] = change.articleId();
+            this.docLengths[doc] = change.length();
+            this.versions[doc] = change.version();
+            this.ordinalById.put(change.articleId(), doc);
+            this.liveCount++;
+            this.totalLength += change.length();
+
+            for(Map.Entry<String, int[]> entry : change.termFreqs().entrySet()){
+                this.postings.computeIfAbsent(entry.getKey(), term -> new PostingList())
+                        .add(doc, entry.getValue()[0]);
+            }
+        }
+
+        private void remove(long articleId) {
+            Integer doc = this.ordinalById.remove(articleId);
+            if(doc == null){
+                return;
+            }
+
+            this.deleted.set(doc);
+            this.liveCount--;
+            this.totalLength -= this.docLengths[doc];
+
+            if(++this.deletedSinceCompact >= COMPACT_THRESHOLD && this.deletedSinceCompact > this.liveCount){
+                compact();
+            }
+        }
+
+        // 살아 있는 문서에 0부터 번호를 다시 매김(순서는 그대로 -> posting list는 정렬된 채로 남음)
+        // posting list에서 삭제된 문서를 걸러내며 새 번호로 바꾸고, 비어 버린 단어는 지움
+        private void compact() {
+            int[] remap = new int[this.docCount];
+            int newLength = Math.max(1024, this.liveCount + (this.liveCount >> 1));
+            long[] newArticleIds = new long[newLength];
+            int[] newDocLengths = new int[newLength];
+            long[] newVersions = new long[newLength];
+
+            int live = 0;
+            for(int doc = 0; doc < this.docCount; doc++){
+                if(this.deleted.get(doc)){
+                    remap[doc] = -1;
+                    continue;
+                }
+                remap[doc] = live;
+                newArticleIds[live] = this.articleIds[doc];
+                newDocLengths[live] = this.docLengths[doc];
+                newVersions[live] = this.versions[doc];
+                live++;
+            }
+
+            Iterator<PostingList> iterator = this.postings.values().iterator();
+            while(iterator.hasNext()){
+                PostingList list = iterator.next();
+                list.remap(remap);
+                if(list.size == 0){
+                    iterator.remove();
+                }
+            }
+            this.ordinalById.replaceAll((articleId, doc) -> remap[doc]);
+
+            this.articleIds = newArticleIds;
+            this.docLengths = newDocLengths;
+            this.versions = newVersions;
+            this.docCount = live;
+            this.deleted.clear();
+            this.deletedSinceCompact = 0;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if(capacity > this.articleIds.length){
+                int newLength = Math.max(capacity, this.articleIds.length + (this.articleIds.length >> 1));
+                this.articleIds = Arrays.copyOf(this.articleIds, newLength);
+                this.docLengths = Arrays.copyOf(this.docLengths, newLength);
+                this.versions = Arrays.copyOf(this.versions, newLength);
+            }
+        }
+    }
+
+    // 문서 번호/빈도를 나란히 담는 int 배열 posting list
+    static final class PostingList {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if(this.size == this.docs.length){
+                int newLength = this.docs.length + (this.docs.length >> 1) + 1;
+                this.docs = Arrays.copyOf(this.docs, newLength);
+                this.freqs = Arrays.copyOf(this.freqs, newLength);
+            }
+            this.docs[this.size] = doc;
+            this.freqs[this.size] = freq;
+            this.size++;
+        }
+
+        // remap : 예전 문서 번호 -> 새 번호(삭제된 문서는 -1)
+        void remap(int[] remap) {
+            int kept = 0;
+            for(int i = 0; i < this.size; i++){
+                int doc = remap[this.docs[i]];
+                if(doc >= 0){
+                    this.docs[kept] = doc;
+                    this.freqs[kept] = this.freqs[i];
+                    kept++;
+                }
+            }
+            this.size = kept;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package kr.or.ddit.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// 검색용 토크나이저
+// - 한글 : 띄어쓰기와 조사가 붙어 있어서("개똥이의") 단어 단위로 자르면 "개똥이"로 검색이 안 됨.
+//   그래서 연속된 한글을 2글자씩 겹쳐 자름(bigram) : "개똥이의" -> 개똥, 똥이, 이의
+// - 영문/숫자 : 단어 단위로 자르고 소문자로 바꿈
+// - 그 외 문자(공백, 문장부호 등)는 구분자로 취급
+public final class ArticleTokenizer {
+
+    private ArticleTokenizer() {}
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if(text == null){
+            return tokens;
+        }
+
+        int length = text.length();
+        int i = 0;
+        while(i < length){
+            char c = text.charAt(i);
+
+            if(isHangul(c)){
+                int start = i;
+                while(i < length && isHangul(text.charAt(i))){
+                    i++;
+                }
+                addBigrams(text, start, i, tokens);
+            }else if(Character.isLetterOrDigit(c)){
+                int start = i;
+                while(i < length && Character.isLetterOrDigit(text.charAt(i)) && !isHangul(text.charAt(i))){
+                    i++;
+                }
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+            }else{
+                i++;
+            }
+        }
+
+        return tokens;
+    }
+
+    // 한 글자짜리 한글은 그대로, 두 글자 이상은 2글자씩 겹쳐서 자름
+    private static void addBigrams(String text, int start, int end, List<String> tokens) {
+        if(end - start == 1){
+            tokens.add(text.substring(start, end));
+            return;
+        }
+        for(int i = start; i < end - 1; i++){
+            tokens.add(text.substring(i, i + 2));
+        }
+    }
+
+    private static boolean isHangul(char c) {
+        return Character.UnicodeScript.of(c) == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -1,23 +1,100 @@
 package kr.or.ddit.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import kr.or.ddit.change.ArticleChangeCounter;
+import kr.or.ddit.change.ArticleChangedEvent;
+import kr.or.ddit.dto.ArticleBatchResult;
 import kr.or.ddit.dto.ArticleForm;
+import kr.or.ddit.dto.ArticlePage;
+import kr.or.ddit.dto.ArticleSearchHit;
+import kr.or.ddit.dto.ArticleSearchResult;
+import kr.or.ddit.dto.ArticleSummary;
 import kr.or.ddit.entity.Article;
+import kr.or.ddit.exception.ArticleVersionConflictException;
 import kr.or.ddit.repository.ArticleRepository;
+import kr.or.ddit.search.ArticleSearchIndex;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 // 서버가 기동 시, 스프링이 이 클래스를 자바빈(객체)으로 등록(메모리에 올림)해서 관리해줌
 @Slf4j // 로그를 찍을 때 도와줌
 @Service
+// 모든 public 메서드의 실행 시간을 article.service 타이머로 기록(class, method 태그)
+@Timed("article.service")
 public class ArticleService {
 
+    // 한 페이지 기본 글 수 / 최대 글 수
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // 검색 결과에서 볼 수 있는 최대 위치(page * size + size). 넘는 페이지는 요청하지 못함
+    // 색인은 상위 (page + 1) * size개를 힙에 모아서 정렬하므로 이 값이 검색 한 번의 메모리 상한이 됨
+    public static final int MAX_SEARCH_WINDOW = 10000;
+
+    // 글 상세 캐시 이름(크기/만료 설정은 application.properties의 spring.cache.caffeine.spec)
+    public static final String ARTICLE_CACHE = "article";
+
+    // 내보내기(export) 시 몇 건마다 flush 할지
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+
+    // 일괄 처리 시 한 번에 flush 하는 건수(hibernate.jdbc.batch_size와 같게 맞춤)
+    private static final int BATCH_SIZE = 50;
+
     // DI, IoC
     @Autowired
     private ArticleRepository articleRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // 전문 검색 색인(등록/수정/삭제가 커밋되면 ArticleChangedEvent로 갱신됨)
+    @Autowired
+    private ArticleSearchIndex articleSearchIndex;
+
+    // 글 변경 이벤트 발행(변경 피드 /api/articles/changes 로 전달됨, 커밋된 변경만)
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // 커밋된 글 변경 수(목록 ETag용)
+    @Autowired
+    private ArticleChangeCounter articleChangeCounter;
+
+    // 쓰기 지연 큐(article.write-behind.enabled=true 일 때만 있음)
+    @Autowired(required = false)
+    private ArticleWriteBehindQueue articleWriteBehindQueue;
+
     // 글 목록
     public List<Article> index() {
         // 데이터는 리파지터리를 통해 가져오므로
@@ -25,10 +102,73 @@ public class ArticleService {
         return this.articleRepository.findAll();
     }
 
+    // 글 목록(커서 페이지)
+    // after : 이전 페이지의 마지막 글 id(첫 페이지는 null), limit : 가져올 글 수
+    public ArticlePage index(Long after, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        long cursor = (after == null) ? 0L : after;
+
+        // 다음 페이지가 있는지 알기 위해 하나 더(size + 1) 조회함
+        List<ArticleSummary> rows = this.articleRepository.findSummariesAfter(cursor, Limit.of(size + 1));
+
+        Long nextCursor = null;
+        if(rows.size() > size){
+            rows = new ArrayList<>(rows.subList(0, size));
+            nextCursor = rows.get(size - 1).id();
+        }
+
+        return new ArticlePage(rows, nextCursor, size);
+    }
+
+    // 글 목록(페이지 번호 방식, 화면용)
+    // page : 0부터 시작하는 페이지 번호, size : 한 페이지 글 수
+    public Slice<ArticleSummary> page(int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0),
+                Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by("id"));
+
+        return this.articleRepository.findSummaries(pageRequest);
+    }
+
+    // 목록 버전(목록 ETag용) : 커밋된 글 등록/수정/삭제마다 바뀌는 값. DB를 조회하지 않음
+    public long listVersion() {
+        return this.articleChangeCounter.current();
+    }
+
+    // 전체 글 내보내기(NDJSON : 한 줄에 글 하나씩 JSON)
+    // 읽는 즉시 out에 쓰고, EXPORT_CHUNK_SIZE 건마다 flush 함(영속성 컨텍스트 비우기는 저장소 쪽에서 함)
+    // -> 글이 몇 천만 건이어도 힙 사용량이 일정함. 반환값은 내보낸 글 수
+    // 트랜잭션은 저장소가 관리하므로 여기서 열지 않음(mapped 프로필이면 JPA 트랜잭션 없이 읽음)
+    public long export(OutputStream out) throws IOException {
+        long[] written = {0};
+        long count = this.articleRepository.forEachArticle(article -> {
+            out.write(this.objectMapper.writeValueAsBytes(article));
+            out.write('\n');
+
+            if(++written[0] % EXPORT_CHUNK_SIZE == 0){
+                out.flush();
+            }
+        });
+        out.flush();
+
+        return count;
+    }
+
     // 글 상세보기
+    // 읽기 관통(read-through) 캐시 : 캐시에 있으면 DB를 조회하지 않고, 없으면 조회 후 캐시에 담음
+    // 없는 글(null)은 캐시하지 않음
+    // 내용(content)까지 읽은 글을 받으므로 캐시/뷰에서 바로 쓸 수 있음
+    @Cacheable(cacheNames = ARTICLE_CACHE, key = "#id", unless = "#result == null")
     public Article show(Long id){
-        Article article = this.articleRepository.findById(id).orElse(null);
-        return article;
+        return this.articleRepository.findWithContentById(id).orElse(null);
+    }
+
+    // 글 내용만 out에 씀(UTF-8). 대상 글이 없으면 false
+    // 저장소가 out에 바로 씀(JPA 쪽은 압축된 LOB를 풀면서 흘려보내므로 아주 긴 글도 내용 전체를 String/byte[]로 만들지 않음)
+    public boolean writeContent(long id, OutputStream out) throws IOException {
+        boolean found = this.articleRepository.writeContent(id, out);
+        out.flush();
+        return found;
     }
 
     // 글 등록하기
@@ -39,71 +179,306 @@ public class ArticleService {
         if(article.getId() != null){
             return null;
         }
+        // 쓰기 지연 모드 : id만 정해서 큐에 넣고 바로 반환(저장은 백그라운드에서 배치로)
+        //  등록 이벤트는 배치가 커밋된 뒤에 ArticleWriteBehindQueue가 발행함
+        if(this.articleWriteBehindQueue != null){
+            return this.articleWriteBehindQueue.enqueue(article);
+        }
         article = this.articleRepository.save(article);
+        publish(ArticleChangedEvent.Type.CREATED, article);
 
         return article;
     }
 
     // 글 수정
+    // 수정되면 커밋 후에 캐시의 예전 글을 지움(다음 조회 때 DB에서 새로 읽어 캐시함)
+    // 예전에는 findById(SELECT) -> save(merge, UPDATE)로 여러 번 DB를 오갔지만
+    //  이제 UPDATE 한 문장으로 수정하고 수정된 행을 바로 돌려받음(DB 왕복 1번)
+    // id가 없으면(잘못된 요청) 또는 대상 글이 없으면 null을 반환
+    // dto.version이 있으면 DB 버전이 같을 때만 수정하고, 다르면 ArticleVersionConflictException(412)
+    @Transactional
     public Article update(ArticleForm dto) {
-        //1. DTO -> 엔티티 변환하기(수정용 엔티티 생성)
-        //클라이언트에서 받은 수정 데이터가 담긴 dto를 DB에서 활용할 수 있도록
-        //  엔티티로 변환해 article 변수에 저장
-        Article article = dto.toEntity();
-
-        Long id = article.getId();
-        //중간에 실행이 잘 되는지 확인하기 위해 id와 article의 내용을 로그로 찍어 봄
-        //id는 첫 번재 중괄호({})에 들어가고, article.toString()의 결과는 두 번째
-        //  중괄호({})에 들어감
-        //Slf4j는 Simple logging facade for Java의 약자. 로깅을 직접하지 않고
-        //  로깅 라이브러리를 찾아서 사용할 수 있도록 해 줌
-        log.info("id : {}, article : {}",id, article);
-
-        //2. 타깃 조회하기(DB에 대상 엔티티가 있는지 조회)
-        //DB에서 대상 엔티티를 조회해 가져 옴. .findById(id)메서드를 통해서
-        //  DB에 해당 id를 가진 엔티티를 가져오되 없다면 널(null)을 반환.
-        Article target = this.articleRepository.findById(id).orElse(null);
-
-        //3. 잘못된 요청 처리하기(대상 엔티티가 없거나 수정하려믄 id가 잘못됐을 경우 처리)
-        if(target == null || id != article.getId()){
-            //400, 잘못된 요청 응답!
-            log.info("update->잘못된 요청! id : {}, article: {} ", id, article.toString());
-            //ResponseEntity 반환
-            //ResponseEntity의 상태(status)에는 400 또는 HttpStatus.BAD_REQUEST를, 본문(body)에는
-            //  반환할 데이터가 없으므로 null을 실어 반환함
+        Long id = dto.getId();
+        //중간에 실행이 잘 되는지 확인하기 위해 id와 dto의 내용을 로그로 찍어 봄
+        log.info("id : {}, dto : {}", id, dto);
+
+        if(id == null){
             return null;
         }
 
-        //4. 업데이트 및 정상 응답(200)하기
-        //DB          변경될값들
-        target.patch(article);
-
-        Article updated = this.articleRepository.save(target);
+        // title/content 중 보내지 않은(null) 값은 기존 값을 유지(patch)
+        Article updated;
+        if(dto.getVersion() == null){
+            updated = this.articleRepository.patch(id, dto.getTitle(), dto.getContent()).orElse(null);
+        }else{
+            updated = this.articleRepository.patchIfVersion(id, dto.getVersion(), dto.getTitle(), dto.getContent())
+                    .orElse(null);
+            // 수정된 행이 없는데 글은 있음 -> 버전이 달라서 수정하지 않은 것
+            if(updated == null && this.articleRepository.existsById(id)){
+                throw new ArticleVersionConflictException("article " + id + " is not at version " + dto.getVersion());
+            }
+        }
+        if(updated != null){
+            evictArticleCacheAfterCommit(id);
+            evictSecondLevelCacheAfterCommit(id);
+            // 수정 결과의 내용은 지연 로딩이라 읽으면 SELECT가 한 번 더 나감
+            //  -> 내용을 보냈으면 보낸 값이 곧 새 내용이므로 그 값으로 색인하고, 보내지 않았을 때만 DB에서 읽음
+            String content = (dto.getContent() != null) ? dto.getContent() : updated.getContent();
+            publish(ArticleChangedEvent.Type.UPDATED, updated, content);
+        }
 
         return updated;
     }
 
     // 글 삭제
-    public Article delete(long id) {
-        // 1. 대상 찾기(DB에서 대상 엔티티가 있는지 조회)
-        // DB에 삭제할 대상 엔티티가 있는지 조회하고 없으면 null을 반환.
-        // 반환받은 값은 target이라는 엔티티변수에 저장
-        Article target = this.articleRepository.findById(id).orElse(null);
+    // DELETE 한 문장으로 삭제하고 삭제된 행 수로 대상이 있었는지 판단(DB 왕복 1번)
+    // 삭제했으면 true, 대상이 없으면 false
+    @Transactional
+    public boolean delete(long id) {
+        int deleted = this.articleRepository.deleteOneById(id);
+        if(deleted > 0){
+            evictArticleCacheAfterCommit(id);
+            this.eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.DELETED, id, null));
+        }
+
+        return deleted > 0;
+    }
 
+    // 글 검색(제목/내용, 점수 순)
+    // 색인에서 한 페이지 분량의 글 id를 찾고, 제목은 그 id들만 한 번에 조회해서 채움
+    // 요청한 페이지가 MAX_SEARCH_WINDOW를 넘으면 null(잘못된 요청)
+    public ArticleSearchResult search(String query, int page, int size) {
+        int pageNo = Math.max(page, 0);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
 
-        // 2. 잘못된 요청 처리하기(대상 엔티티가 없어서 요청 자체가 잘못됐을 경우 처리)
-        // target이 null이면 ResponseEntity의 상태(status)에는 BAD_REQUEST, 본문(body)에는
-        // null을 실어 보냄
-        if(target == null){
+        long offset = Math.multiplyExact((long) pageNo, pageSize);
+        if(offset + pageSize > MAX_SEARCH_WINDOW){
+            log.info("search->page out of window : page {}, size {}", pageNo, pageSize);
             return null;
         }
 
+        ArticleSearchIndex.Result result = this.articleSearchIndex.search(query, (int) offset, pageSize);
+
+        List<Long> ids = new ArrayList<>(result.hits().size());
+        for(ArticleSearchIndex.Hit hit : result.hits()){
+            ids.add(hit.articleId());
+        }
+        // 제목만 필요하므로 내용(content)은 읽지 않음
+        Map<Long, String> titles = new HashMap<>();
+        for(ArticleSummary summary : this.articleRepository.findSummariesByIdIn(ids)){
+            titles.put(summary.id(), summary.title());
+        }
+
+        List<ArticleSearchHit> hits = new ArrayList<>(ids.size());
+        for(ArticleSearchIndex.Hit hit : result.hits()){
+            // 색인 조회와 DB 조회 사이에 삭제된 글은 건너뜀
+            if(titles.containsKey(hit.articleId())){
+                hits.add(new ArticleSearchHit(hit.articleId(), titles.get(hit.articleId()), hit.score()));
+            }
+        }
 
-        // 3. 대상 삭제하기(대상 엔티티가 있으면 삭제하고 정상 응답(200) 반환)
-        // 잘못된 요청이 아니라면 찾은 대상 엔티티를 삭제함. ResponseEntity의 상태(status)에는
-        // HttpStatus.OK, 본문(body)에는 null을 실어 보냄
-        this.articleRepository.delete(target);
+        return new ArticleSearchResult(query, result.total(), pageNo, pageSize, hits);
+    }
+
+    // 글 캐시 통계(적중/실패/제거 횟수)
+    public Map<String, Object> cacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+
+        Cache cache = this.cacheManager.getCache(ARTICLE_CACHE);
+        if(cache instanceof CaffeineCache caffeineCache){
+            CacheStats cacheStats = caffeineCache.getNativeCache().stats();
+            stats.put("size", caffeineCache.getNativeCache().estimatedSize());
+            stats.put("hitCount", cacheStats.hitCount());
+            stats.put("missCount", cacheStats.missCount());
+            stats.put("hitRate", cacheStats.hitRate());
+            stats.put("evictionCount", cacheStats.evictionCount());
+        }
+
+        return stats;
+    }
+
+    // 글 일괄 등록
+    // 하나의 트랜잭션 안에서 저장하고 BATCH_SIZE 건마다 flush -> INSERT가 JDBC 배치로 묶여서 전송됨
+    // id가 들어 있는 항목은 등록하지 않고 BAD_REQUEST로 표시
+    @Transactional
+    public List<ArticleBatchResult> createAll(List<ArticleForm> forms) {
+        List<ArticleBatchResult> results = new ArrayList<>(forms.size());
+        int pending = 0;
+
+        for(int i = 0; i < forms.size(); i++){
+            Article article = forms.get(i).toEntity();
+            if(article.getId() != null){
+                results.add(new ArticleBatchResult(i, article.getId(), ArticleBatchResult.Status.BAD_REQUEST));
+                continue;
+            }
+
+            // 시퀀스 방식이므로 save 시점에 id가 정해지고, INSERT는 flush 때 모아서 실행됨
+            article = this.articleRepository.save(article);
+            publish(ArticleChangedEvent.Type.CREATED, article);
+            results.add(new ArticleBatchResult(i, article.getId(), ArticleBatchResult.Status.CREATED));
+
+            if(++pending % BATCH_SIZE == 0){
+                flushAndClear();
+            }
+        }
+
+        return results;
+    }
+
+    // 글 일괄 수정(title/content 중 보낸 값만 반영)
+    // BATCH_SIZE 건씩 findAllById로 한 번에 조회 -> patch -> flush(UPDATE 배치)
+    // 항목에 version이 있으면 단건 수정처럼 DB 버전과 같을 때만 고치고, 다르면 그 항목만 CONFLICT
+    @Transactional
+    public List<ArticleBatchResult> updateAll(List<ArticleForm> forms) {
+        List<ArticleBatchResult> results = new ArrayList<>(forms.size());
+        evictArticleCacheAfterCommit(null);
+
+        for(int from = 0; from < forms.size(); from += BATCH_SIZE){
+            int to = Math.min(from + BATCH_SIZE, forms.size());
+
+            List<Long> ids = new ArrayList<>(to - from);
+            for(int i = from; i < to; i++){
+                if(forms.get(i).getId() != null){
+                    ids.add(forms.get(i).getId());
+                }
+            }
+            Map<Long, Article> targets = findAllByIdAsMap(ids);
+            List<Article> changed = new ArrayList<>(targets.size());
+
+            for(int i = from; i < to; i++){
+                Article article = forms.get(i).toEntity();
+                if(article.getId() == null){
+                    results.add(new ArticleBatchResult(i, null, ArticleBatchResult.Status.BAD_REQUEST));
+                    continue;
+                }
+
+                Article target = targets.get(article.getId());
+                if(target == null){
+                    results.add(new ArticleBatchResult(i, article.getId(), ArticleBatchResult.Status.NOT_FOUND));
+                    continue;
+                }
+
+                // 그 사이 다른 요청이 먼저 고친 글 -> 덮어쓰지 않음
+                Long version = forms.get(i).getVersion();
+                if(version != null && !version.equals(target.getVersion())){
+                    results.add(new ArticleBatchResult(i, article.getId(), ArticleBatchResult.Status.CONFLICT));
+                    continue;
+                }
+
+                // 영속 상태의 엔티티를 고치면 flush 때 UPDATE가 실행됨(더티 체킹)
+                target.patch(article);
+                changed.add(target);
+                results.add(new ArticleBatchResult(i, article.getId(), ArticleBatchResult.Status.UPDATED));
+            }
+
+            // JPA는 영속 상태라 merge 없이 flush 때 UPDATE(더티 체킹). 더티 체킹이 없는 리파지터리(mapped 프로필)는 여기서 저장
+            this.articleRepository.saveAll(changed);
+            // 버전은 flush 때 올라가므로 flush 후에, 영속성 컨텍스트를 비우기 전에(내용 지연 로딩) 이벤트 발행
+            this.entityManager.flush();
+            for(Article article : changed){
+                publish(ArticleChangedEvent.Type.UPDATED, article);
+            }
+            this.entityManager.clear();
+        }
+
+        return results;
+    }
+
+    // 글 일괄 삭제
+    // BATCH_SIZE 건씩 조회 후 삭제 -> flush 때 DELETE가 배치로 실행됨. 없는(또는 중복된) id는 NOT_FOUND
+    @Transactional
+    public List<ArticleBatchResult> deleteAll(List<Long> ids) {
+        List<ArticleBatchResult> results = new ArrayList<>(ids.size());
+        evictArticleCacheAfterCommit(null);
+
+        for(int from = 0; from < ids.size(); from += BATCH_SIZE){
+            int to = Math.min(from + BATCH_SIZE, ids.size());
+            Map<Long, Article> targets = findAllByIdAsMap(ids.subList(from, to));
+
+            List<Article> deleted = new ArrayList<>(targets.size());
+            for(int i = from; i < to; i++){
+                Long id = ids.get(i);
+                Article target = (id == null) ? null : targets.remove(id);
+                if(target == null){
+                    results.add(new ArticleBatchResult(i, id, ArticleBatchResult.Status.NOT_FOUND));
+                    continue;
+                }
+
+                deleted.add(target);
+                this.eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.DELETED, id, null));
+                results.add(new ArticleBatchResult(i, id, ArticleBatchResult.Status.DELETED));
+            }
+            this.articleRepository.deleteAll(deleted);
+
+            flushAndClear();
+        }
+
+        return results;
+    }
+
+    // 글 변경 이벤트 발행. 트랜잭션 안이면 커밋 후에 구독자(ArticleChangeFeed)와 검색 색인(ArticleSearchIndex)에 전달됨
+    // 커밋 후에는 영속성 컨텍스트가 닫혀 있을 수 있으므로 내용까지 지금 읽어서 영속 상태가 아닌 복사본을 담음
+    private void publish(ArticleChangedEvent.Type type, Article article) {
+        publish(type, article, article.getContent());
+    }
+
+    // content : 이미 알고 있는 글 내용(지연 로딩된 내용을 다시 읽지 않도록)
+    private void publish(ArticleChangedEvent.Type type, Article article, String content) {
+        Article snapshot = new Article(article.getId(), article.getTitle(), content,
+                article.getVersion(), article.getLastModified());
+        this.eventPublisher.publishEvent(new ArticleChangedEvent(type, article.getId(), article.getVersion(), snapshot));
+    }
+
+    // 글 상세 캐시(Caffeine)는 트랜잭션을 모르므로 @CacheEvict로 지우면 커밋 전에 지워질 수 있음
+    //  -> 그 사이 show가 커밋 전의 예전 행을 읽어 다시 캐시하면 만료(10분)까지 예전 글이 보임
+    // 그래서 커밋 후에 지움. id가 null이면 전체를 지움(일괄 수정/삭제), 롤백되면 지우지 않음
+    private void evictArticleCacheAfterCommit(Long id) {
+        Cache cache = this.cacheManager.getCache(ARTICLE_CACHE);
+        if(cache == null){
+            return;
+        }
+        Runnable evict = (id == null) ? cache::clear : () -> cache.evict(id);
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            evict.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+
+    // 네이티브 쿼리로 수정한 글은 Hibernate가 2차 캐시/쿼리 캐시를 비워 주지 않으므로 직접 비움
+    // 커밋 전에 비우면 그 사이 다른 트랜잭션이 예전 값을 다시 캐시할 수 있으므로 커밋 후에 비움
+    private void evictSecondLevelCacheAfterCommit(Long id) {
+        org.hibernate.Cache cache = this.entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getCache();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.evictEntityData(Article.class, id);
+                cache.evictDefaultQueryRegion();
+            }
+        });
+    }
+
+    // id 목록으로 한 번에 조회해서 id -> 엔티티 맵으로 반환
+    private Map<Long, Article> findAllByIdAsMap(List<Long> ids) {
+        Map<Long, Article> map = new HashMap<>();
+        for(Article article : this.articleRepository.findAllById(ids)){
+            map.put(article.getId(), article);
+        }
+        return map;
+    }
 
-        return target;
+    // 모아 둔 SQL을 DB로 보내고(JDBC 배치) 영속성 컨텍스트를 비워 메모리를 일정하게 유지
+    private void flushAndClear() {
+        this.entityManager.flush();
+        this.entityManager.clear();
     }
 }
@@ -0,0 +1,346 @@
+package kr.or.ddit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import kr.or.ddit.change.ArticleChangedEvent;
+import kr.or.ddit.entity.Article;
+import kr.or.ddit.entity.ArticleContentConverter;
+import kr.or.ddit.exception.ArticleQueueFullException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+글 등록 쓰기 지연(write-behind) 큐 : article.write-behind.enabled=true 일 때만 등록됨
+- ArticleService.create는 시퀀스에서 미리 받아 둔 id 블록으로 id를 바로 정하고 큐에 넣은 뒤 즉시 반환
+- 백그라운드 writer 스레드가 큐를 비우며 batch-size 건씩 JDBC 배치 INSERT(트랜잭션 1번)
+- 큐가 가득 차면 ArticleQueueFullException(429)으로 거절(backpressure)
+- 종료 시에는 웹 서버가 요청을 더 받지 않게 된 뒤에 멈추고, 남은 글을 모두 저장한 다음 끝남
+  (멈추는 중에 큐에 넣는 요청은 받거나 거절하거나 둘 중 하나. 받아 놓고 저장하지 않는 글은 없음)
+- 저장 실패 : 클라이언트는 이미 id를 받았으므로 버리지 않음
+  1. 배치 전체를 retry-backoff부터 두 배씩 기다리며 max-retries번 다시 시도(DB 일시 장애)
+  2. 그래도 실패하면 반씩 나눠 저장해서 문제 있는 글만 골라냄
+  3. 한 건씩으로도 저장하지 못한 글은 dead-letter-file(NDJSON, 한 줄에 글 하나 + 오류)에 남김
+     POST /api/articles/import?format=ndjson 으로 다시 가져올 수 있음(새 id로 등록됨)
+- 글 등록 이벤트(ArticleChangedEvent CREATED)는 ArticleService가 아니라 여기서 배치가 커밋된 뒤에 발행
+  (큐에만 있는 글을 변경 피드/검색 색인에 알리면 구독자가 아직 없는 글을 조회하게 되고, dead-letter로 빠진 글도 알리게 됨)
+- 메트릭 : article.writebehind.queue.depth, article.writebehind.flush, article.writebehind.rejected,
+  article.writebehind.failed(저장 실패한 시도의 글 수), article.writebehind.deadletter(dead-letter 파일에 남긴 글 수)
+
+주의 : 큐에 들어 있는 동안(저장 전)에는 상세 조회(show)에서 글이 보이지 않음
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "article.write-behind", name = "enabled", havingValue = "true")
+public class ArticleWriteBehindQueue implements SmartLifecycle {
+
+    // Article의 @SequenceGenerator(allocationSize)와 같아야 함 : 시퀀스 값 v 하나로 v ~ v+49를 씀(pooled-lo)
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO ARTICLE(ID, TITLE, CONTENT, VERSION, LAST_MODIFIED) VALUES (?, ?, ?, ?, ?)";
+
+    // 다시 시도 사이에 기다리는 최대 시간(ms)
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+
+    @Value("${article.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${article.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${article.write-behind.max-retries:5}")
+    private int maxRetries;
+
+    @Value("${article.write-behind.retry-backoff:100ms}")
+    private Duration retryBackoff;
+
+    @Value("${article.write-behind.dead-letter-file:./data/write-behind-dead-letter.ndjson}")
+    private String deadLetterFile;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private BlockingQueue<Article> queue;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Timer flushTimer;
+    private Counter rejectedCounter;
+    private Counter failedCounter;
+    private Counter deadLetterCounter;
+
+    // id 블록 : nextId ~ blockEnd-1 을 사용할 수 있음
+    private final ReentrantLock idLock = new ReentrantLock();
+    private long nextId;
+    private long blockEnd;
+
+    // enqueue(읽기 락)와 stop(쓰기 락)을 나눔 : running 확인과 큐에 넣기 사이에 멈추면
+    //  writer가 이미 끝난 뒤에 글이 큐에 들어가 저장되지 않으므로, 멈출 때는 진행 중인 enqueue가 끝나기를 기다림
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private Thread writer;
+
+    @PostConstruct
+    void init() {
+        this.queue = new ArrayBlockingQueue<>(this.capacity);
+        this.transactionTemplate = new TransactionTemplate(this.transactionManager);
+
+        Gauge.builder("article.writebehind.queue.depth", this.queue, BlockingQueue::size)
+                .register(this.meterRegistry);
+        this.flushTimer = Timer.builder("article.writebehind.flush")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(this.meterRegistry);
+        this.rejectedCounter = Counter.builder("article.writebehind.rejected").register(this.meterRegistry);
+        this.failedCounter = Counter.builder("article.writebehind.failed").register(this.meterRegistry);
+        this.deadLetterCounter = Counter.builder("article.writebehind.deadletter").register(this.meterRegistry);
+    }
+
+    // id를 정해서 큐에 넣고 바로 반환. 큐가 가득 찼거나 멈춘 상태면 ArticleQueueFullException
+    public Article enqueue(Article article) {
+        this.stateLock.readLock().lock();
+        try{
+            if(!this.running){
+                this.rejectedCounter.increment();
+                throw new ArticleQueueFullException("write-behind queue is not running");
+            }
+
+            article.setId(nextId());
+            // Hibernate를 거치지 않으므로 @Version/@PrePersist가 하던 일을 직접 함
+            article.setVersion(0L);
+            article.setLastModified(Instant.now());
+            if(!this.queue.offer(article)){
+                this.rejectedCounter.increment();
+                throw new ArticleQueueFullException("write-behind queue is full");
+            }
+        }finally{
+            this.stateLock.readLock().unlock();
+        }
+
+        return article;
+    }
+
+    private long nextId() {
+        this.idLock.lock();
+        try{
+            if(this.nextId >= this.blockEnd){
+                Long start = this.jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR ARTICLE_SEQ", Long.class);
+                this.nextId = start;
+                this.blockEnd = start + ID_BLOCK_SIZE;
+            }
+            return this.nextId++;
+        }finally{
+            this.idLock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        this.running = true;
+        this.writer = new Thread(this::drainLoop, "article-write-behind");
+        this.writer.start();
+    }
+
+    // 새 글은 더 받지 않고, writer가 남은 글을 모두 저장할 때까지 기다림
+    @Override
+    public void stop() {
+        // 진행 중인 enqueue가 끝난 뒤에 멈춤 -> 이후로는 큐에 새 글이 들어오지 않으므로 writer가 남은 글을 모두 저장함
+        this.stateLock.writeLock().lock();
+        try{
+            this.running = false;
+        }finally{
+            this.stateLock.writeLock().unlock();
+        }
+        try{
+            this.writer.join();
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+        log.info("stop->write-behind queue flushed, remaining : {}", this.queue.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    // 웹 서버(graceful shutdown 포함)가 멈춘 뒤에 멈추도록 더 낮은 phase 사용(phase가 낮을수록 늦게 멈춤)
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        List<Article> batch = new ArrayList<>(this.batchSize);
+
+        while(this.running || !this.queue.isEmpty()){
+            try{
+                Article first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+                if(first == null){
+                    continue;
+                }
+                batch.add(first);
+                this.queue.drainTo(batch, this.batchSize - 1);
+
+                flush(batch);
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                break;
+            }finally{
+                batch.clear();
+            }
+        }
+    }
+
+    // 배치 저장. 실패하면 다시 시도하고, 그래도 안 되면 나눠서 저장(문제 있는 글은 dead-letter)
+    private void flush(List<Article> batch) {
+        long started = System.nanoTime();
+        try{
+            RuntimeException failure = insertWithRetry(batch);
+            if(failure != null){
+                split(batch, failure);
+            }
+        }finally{
+            this.flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // 기다리는 시간을 두 배씩 늘리며 maxRetries번까지 다시 시도. 저장했으면 null, 끝내 실패하면 마지막 예외
+    private RuntimeException insertWithRetry(List<Article> batch) {
+        long backoff = this.retryBackoff.toMillis();
+        for(int attempt = 0; ; attempt++){
+            try{
+                insert(batch);
+                return null;
+            }catch(RuntimeException e){
+                this.failedCounter.increment(batch.size());
+                if(attempt >= this.maxRetries){
+                    log.error("flush->failed to write {} articles after {} retries", batch.size(), attempt, e);
+                    return e;
+                }
+                log.warn("flush->failed to write {} articles, retry in {}ms : {}", batch.size(), backoff, e.toString());
+                try{
+                    Thread.sleep(backoff);
+                }catch(InterruptedException ie){
+                    Thread.currentThread().interrupt();
+                    return e;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    // 반씩 나눠서 한 번씩 저장. 한 건까지 나눠도 실패한 글은 dead-letter 파일로
+    private void split(List<Article> batch, RuntimeException failure) {
+        if(batch.size() == 1){
+            deadLetter(batch.get(0), failure);
+            return;
+        }
+
+        int half = batch.size() / 2;
+        for(List<Article> part : List.of(batch.subList(0, half), batch.subList(half, batch.size()))){
+            try{
+                insert(part);
+            }catch(RuntimeException e){
+                this.failedCounter.increment(part.size());
+                split(part, e);
+            }
+        }
+    }
+
+    // 한 트랜잭션 안에서 JDBC 배치 INSERT. 커밋되면 저장한 글마다 등록 이벤트 발행
+    private void insert(List<Article> batch) {
+        this.transactionTemplate.executeWithoutResult(status ->
+                this.jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, article) -> {
+                    ps.setLong(1, article.getId());
+                    ps.setString(2, article.getTitle());
+                    ps.setBytes(3, ArticleContentConverter.encode(article.getContent()));
+                    ps.setLong(4, article.getVersion());
+                    ps.setObject(5, article.getLastModified().atOffset(ZoneOffset.UTC));
+                }));
+
+        // Hibernate를 거치지 않고 INSERT 했으므로 목록 쿼리 캐시를 직접 비움
+        this.entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+
+        // 트랜잭션 밖이므로 리스너(fallbackExecution)가 바로 받음. 큐의 글은 요청 스레드에 돌려준 객체라 복사해서 넘김
+        for(Article article : batch){
+            Article snapshot = new Article(article.getId(), article.getTitle(), article.getContent(),
+                    article.getVersion(), article.getLastModified());
+            this.eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.CREATED,
+                    article.getId(), article.getVersion(), snapshot));
+        }
+    }
+
+    // 저장하지 못한 글을 dead-letter 파일에 한 줄 추가(DSYNC : 디스크에 쓴 뒤에 반환)
+    // 파일에도 못 쓰면 로그에라도 글 전체를 남김
+    private void deadLetter(Article article, RuntimeException failure) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("id", article.getId());
+        entry.put("title", article.getTitle());
+        entry.put("content", article.getContent());
+        entry.put("version", article.getVersion());
+        entry.put("lastModified", article.getLastModified());
+        entry.put("error", failure.toString());
+
+        this.deadLetterCounter.increment();
+        try{
+            byte[] line = (this.objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+            Path path = Path.of(this.deadLetterFile);
+            Path parent = path.toAbsolutePath().getParent();
+            if(parent != null){
+                Files.createDirectories(parent);
+            }
+            Files.write(path, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND,
+                    StandardOpenOption.DSYNC);
+            log.error("deadLetter->article {} written to {}", article.getId(), this.deadLetterFile, failure);
+        }catch(IOException e){
+            log.error("deadLetter->failed to write article {} : {}", article.getId(), entry, e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package kr.or.ddit.view;
+
+import com.samskivert.mustache.Template;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/*
+미리 컴파일된 페이지 템플릿
+ 조각(segment) 목록을 순서대로 출력함
+ - byte[] : 태그가 없는 부분(정적 레이아웃 partial, 태그 없는 HTML). 미리 인코딩해 둔 바이트를 그대로 씀
+ - Template : 태그가 있는 부분. 요청마다 모델로 렌더링
+ */
+public class PrecompiledMustacheTemplate {
+
+    private final String name;
+
+    private final List<Object> segments;
+
+    private final Charset charset;
+
+    PrecompiledMustacheTemplate(String name, List<Object> segments, Charset charset) {
+        this.name = name;
+        this.segments = List.copyOf(segments);
+        this.charset = charset;
+    }
+
+    // out(서블릿 출력 스트림)에 바로 씀. 페이지 전체를 문자열로 만들지 않음
+    public void render(Object context, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, this.charset);
+        for(Object segment : this.segments){
+            if(segment instanceof byte[] bytes){
+                // 앞에서 Writer에 쓴 글자가 먼저 나가도록 비우고 바이트를 씀
+                writer.flush();
+                out.write(bytes);
+            }else{
+                ((Template) segment).execute(context, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    // 미리 인코딩해 둔 정적 바이트 수(확인/로그용)
+    public int staticBytes() {
+        int total = 0;
+        for(Object segment : this.segments){
+            if(segment instanceof byte[] bytes){
+                total += bytes.length;
+            }
+        }
+        return total;
+    }
+}
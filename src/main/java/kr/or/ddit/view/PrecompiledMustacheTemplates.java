@@ -0,0 +1,149 @@
+package kr.or.ddit.view;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.MustacheException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileCopyUtils;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+기동 시 templates/ 아래의 모든 .mustache를 한 번만 컴파일해 두는 저장소
+ 스프링 부트 기본 MustacheView는 요청마다 템플릿 파일을 읽고 컴파일함(670줄짜리 layouts/aside 포함)
+
+ - 한 줄을 통째로 차지하는 partial({{>layouts/header}} 등)이 태그가 없는 정적 파일이면
+   그 줄을 기동 시 한 번 렌더링해서 바이트(byte[])로 저장하고, 요청 때는 바이트를 그대로 씀
+ - 나머지 부분은 partial 줄을 경계로 잘라서 각각 컴파일(태그가 없는 부분은 바이트로)
+ - 섹션({{#..}}..{{/..}})이 partial 줄을 사이에 두고 열리고 닫혀서 따로 컴파일할 수 없으면 통째로 컴파일
+ 컴파일러는 스프링 부트가 만든 Mustache.Compiler(partial 로더, Environment 값 조회 포함)를 그대로 씀
+ */
+@Slf4j
+@Component
+public class PrecompiledMustacheTemplates {
+
+    // 한 줄에 partial 태그만 있는 줄(standalone partial)
+    private static final Pattern STANDALONE_PARTIAL =
+            Pattern.compile("(?m)^[ \\t]*\\{\\{>\\s*([^}\\s]+)\\s*}}[ \\t]*(?:\\r?\\n|\\z)");
+
+    @Autowired
+    private Mustache.Compiler compiler;
+
+    @Autowired
+    private ResourcePatternResolver resourcePatternResolver;
+
+    @Value("${spring.mustache.prefix:classpath:/templates/}")
+    private String prefix;
+
+    @Value("${spring.mustache.suffix:.mustache}")
+    private String suffix;
+
+    @Value("${spring.mustache.charset:UTF-8}")
+    private Charset charset;
+
+    // 뷰 이름(articles/index) -> 컴파일된 템플릿
+    private Map<String, PrecompiledMustacheTemplate> templates = Map.of();
+
+    @PostConstruct
+    void compileAll() throws IOException {
+        long started = System.nanoTime();
+        String root = this.resourcePatternResolver.getResource(this.prefix).getURI().toString();
+        String pattern = this.prefix.replaceFirst("^classpath:", "classpath*:") + "**/*" + this.suffix;
+
+        Map<String, PrecompiledMustacheTemplate> compiled = new HashMap<>();
+        for(Resource resource : this.resourcePatternResolver.getResources(pattern)){
+            String uri = resource.getURI().toString();
+            if(!uri.startsWith(root)){
+                continue;
+            }
+            String name = uri.substring(root.length(), uri.length() - this.suffix.length());
+            compiled.put(name, compile(name, read(resource)));
+        }
+        this.templates = Map.copyOf(compiled);
+
+        log.info("compileAll->{} templates in {}ms", this.templates.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // 없으면 null
+    public PrecompiledMustacheTemplate get(String viewName) {
+        return this.templates.get(viewName);
+    }
+
+    public Charset getCharset() {
+        return this.charset;
+    }
+
+    PrecompiledMustacheTemplate compile(String name, String source) {
+        try{
+            return new PrecompiledMustacheTemplate(name, split(source), this.charset);
+        }catch(MustacheException e){
+            log.debug("compile->{} : partial 기준으로 나눌 수 없어 통째로 컴파일 ({})", name, e.getMessage());
+            List<Object> whole = new ArrayList<>(1);
+            whole.add(this.compiler.compile(source));
+            return new PrecompiledMustacheTemplate(name, whole, this.charset);
+        }
+    }
+
+    private List<Object> split(String source) {
+        List<Object> segments = new ArrayList<>();
+        Matcher matcher = STANDALONE_PARTIAL.matcher(source);
+        int position = 0;
+
+        while(matcher.find()){
+            if(!isStatic(matcher.group(1))){
+                continue;
+            }
+            addText(segments, source.substring(position, matcher.start()));
+            // partial 줄을 지금 컴파일러로 한 번 렌더링 -> 들여쓰기/줄바꿈 처리까지 통째로 렌더링할 때와 같은 결과
+            String rendered = this.compiler.compile(matcher.group()).execute(Map.of());
+            segments.add(rendered.getBytes(this.charset));
+            position = matcher.end();
+        }
+        addText(segments, source.substring(position));
+
+        return segments;
+    }
+
+    private void addText(List<Object> segments, String text) {
+        if(text.isEmpty()){
+            return;
+        }
+        if(text.contains("{{")){
+            segments.add(this.compiler.compile(text));
+        }else{
+            segments.add(text.getBytes(this.charset));
+        }
+    }
+
+    // 태그가 하나도 없는 partial이면 모든 요청에서 결과가 같음
+    private boolean isStatic(String partialName) {
+        try(Reader reader = this.compiler.loader.getTemplate(partialName)){
+            return !FileCopyUtils.copyToString(reader).contains("{{");
+        }catch(Exception e){
+            return false;
+        }
+    }
+
+    private String read(Resource resource) {
+        try(Reader reader = new InputStreamReader(resource.getInputStream(), this.charset)){
+            return FileCopyUtils.copyToString(reader);
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package kr.or.ddit.view;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.view.AbstractView;
+
+import java.util.Map;
+
+// 미리 컴파일된 템플릿을 렌더링하는 뷰. 모델을 컨텍스트로 서블릿 출력 스트림에 바로 씀
+public class PrecompiledMustacheView extends AbstractView {
+
+    private final PrecompiledMustacheTemplate template;
+
+    public PrecompiledMustacheView(PrecompiledMustacheTemplate template, String contentType) {
+        this.template = template;
+        setContentType(contentType);
+    }
+
+    @Override
+    protected void renderMergedOutputModel(Map<String, Object> model, HttpServletRequest request,
+                                           HttpServletResponse response) throws Exception {
+        response.setContentType(getContentType());
+        this.template.render(model, response.getOutputStream());
+    }
+
+    public PrecompiledMustacheTemplate getTemplate() {
+        return this.template;
+    }
+}
@@ -0,0 +1,41 @@
+package kr.or.ddit.view;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.view.AbstractCachingViewResolver;
+
+import java.util.Locale;
+
+/*
+미리 컴파일된 Mustache 템플릿용 뷰 리졸버
+ 스프링 부트 MustacheViewResolver보다 먼저(order) 조회하고, 해당 이름의 템플릿이 없으면 null을 반환해서
+ 다음 리졸버가 처리하게 함("redirect:/articles" 같은 이름도 부트 리졸버가 처리)
+ ddit.mustache.precompiled=false 로 끄면 항상 null -> 예전처럼 요청마다 컴파일하는 부트 기본 뷰를 씀
+ */
+@Component
+public class PrecompiledMustacheViewResolver extends AbstractCachingViewResolver implements Ordered {
+
+    @Autowired
+    private PrecompiledMustacheTemplates templates;
+
+    @Value("${ddit.mustache.precompiled:true}")
+    private boolean enabled;
+
+    @Override
+    protected View loadView(String viewName, Locale locale) {
+        if(!this.enabled){
+            return null;
+        }
+        PrecompiledMustacheTemplate template = this.templates.get(viewName);
+        return (template == null) ? null : new PrecompiledMustacheView(template, "text/html;charset=" + this.templates.getCharset().name());
+    }
+
+    // 부트 MustacheViewResolver(LOWEST_PRECEDENCE - 10)보다 앞
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 20;
+    }
+}
@@ -1,3 +1,6 @@
-INSERT INTO ARTICLE(TITLE, CONTENT) VALUES('개똥이의 여행','즐거운 여행');
-INSERT INTO ARTICLE(TITLE, CONTENT) VALUES('개똥이의 여행2','즐거운 여행2');
-INSERT INTO ARTICLE(TITLE, CONTENT) VALUES('개똥이의 여행3','즐거운 여행3');
\ No newline at end of file
+-- CONTENT는 ArticleContentConverter 형식의 BLOB : X'00' + UTF-8 바이트(짧은 글은 압축하지 않음)
+INSERT INTO ARTICLE(ID, TITLE, CONTENT, VERSION, LAST_MODIFIED) VALUES(1, '개똥이의 여행',X'00ECA690EAB1B0EC9AB420EC97ACED9689', 0, CURRENT_TIMESTAMP); -- '즐거운 여행'
+INSERT INTO ARTICLE(ID, TITLE, CONTENT, VERSION, LAST_MODIFIED) VALUES(2, '개똥이의 여행2',X'00ECA690EAB1B0EC9AB420EC97ACED968932', 0, CURRENT_TIMESTAMP); -- '즐거운 여행2'
+INSERT INTO ARTICLE(ID, TITLE, CONTENT, VERSION, LAST_MODIFIED) VALUES(3, '개똥이의 여행3',X'00ECA690EAB1B0EC9AB420EC97ACED968933', 0, CURRENT_TIMESTAMP); -- '즐거운 여행3'
+-- id를 직접 넣었으므로 시퀀스가 다음 id(4)부터 발급하도록 맞춤
+ALTER SEQUENCE ARTICLE_SEQ RESTART WITH 4;
\ No newline at end of file
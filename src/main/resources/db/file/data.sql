@@ -0,0 +1,9 @@
+-- 파일 DB(file 프로필) 초기 글 : 글 테이블이 비어 있을 때(처음 만든 DB)만 넣음
+-- id 1~3은 시퀀스(4부터 시작)와 겹치지 않음
+-- CONTENT는 ArticleContentConverter 형식의 BLOB : X'00' + UTF-8 바이트('즐거운 여행', '즐거운 여행2', '즐거운 여행3')
+INSERT INTO ARTICLE(ID, TITLE, CONTENT, VERSION, LAST_MODIFIED)
+SELECT ID, TITLE, CONTENT, VERSION, LAST_MODIFIED FROM (VALUES
+    (1, '개똥이의 여행', X'00ECA690EAB1B0EC9AB420EC97ACED9689', 0, CURRENT_TIMESTAMP),
+    (2, '개똥이의 여행2', X'00ECA690EAB1B0EC9AB420EC97ACED968932', 0, CURRENT_TIMESTAMP),
+    (3, '개똥이의 여행3', X'00ECA690EAB1B0EC9AB420EC97ACED968933', 0, CURRENT_TIMESTAMP)) AS SEED(ID, TITLE, CONTENT, VERSION, LAST_MODIFIED)
+WHERE NOT EXISTS (SELECT 1 FROM ARTICLE);
@@ -0,0 +1,15 @@
+-- 파일 DB(file 프로필) 스키마 : 이미 있으면 건너뜀
+-- Article 엔티티 매핑과 같아야 함(ddl-auto=none 이므로 엔티티를 바꾸면 여기도 바꿔야 함)
+-- CONTENT : ArticleContentConverter로 압축한 BLOB
+--  CONTENT가 VARCHAR이던 때 만든 DB는 한 번만 직접 바꿈 : ALTER TABLE ARTICLE ALTER COLUMN CONTENT BINARY LARGE OBJECT;
+--  (바뀐 예전 값은 머리 바이트 없는 UTF-8이므로 그대로 읽히고, 다음에 수정될 때 새 형식으로 저장됨)
+CREATE TABLE IF NOT EXISTS ARTICLE (
+    ID BIGINT NOT NULL PRIMARY KEY,
+    TITLE VARCHAR(255),
+    CONTENT BINARY LARGE OBJECT,
+    VERSION BIGINT NOT NULL,
+    LAST_MODIFIED TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- @SequenceGenerator(allocationSize = 50)와 같은 증가값. 초기 글 1~3 다음인 4부터 발급
+CREATE SEQUENCE IF NOT EXISTS ARTICLE_SEQ START WITH 4 INCREMENT BY 50;
@@ -0,0 +1,13 @@
+package kr.or.ddit.reactive;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 수정 요청의 버전(If-Match 또는 본문 version)이 저장된 글의 버전과 다름 -> 412 Precondition Failed
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class ArticleVersionConflictException extends RuntimeException {
+
+    public ArticleVersionConflictException(String message) {
+        super(message);
+    }
+}
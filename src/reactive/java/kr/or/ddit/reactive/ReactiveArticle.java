@@ -0,0 +1,34 @@
+package kr.or.ddit.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.OffsetDateTime;
+
+/*
+ARTICLE 테이블 한 행(R2DBC 매핑). JSON 모양은 서블릿 버전의 Article과 같음(id, title, content, version, lastModified)
+ version : 등록 시 0, 수정될 때마다 1 증가(ETag "id-version")
+ lastModified : R2DBC H2 드라이버는 TIMESTAMP WITH TIME ZONE을 OffsetDateTime으로 돌려줌
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("ARTICLE")
+public class ReactiveArticle {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String content;
+
+    @Version
+    private Long version;
+
+    private OffsetDateTime lastModified;
+}
@@ -0,0 +1,19 @@
+package kr.or.ddit.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/*
+글 REST API의 논블로킹(reactive) 버전 : WebFlux(Reactor Netty) + R2DBC(H2)
+ 서블릿 버전(DditApplication, ArticleApiController)과 같은 경로/의미의 index/show/create/update/delete를
+ 적은 수의 이벤트 루프 스레드로 처리함 -> 느린 클라이언트 수천 개가 연결돼 있어도 클라이언트마다 스레드를 잡지 않음
+ WebFlux와 서블릿 MVC는 한 애플리케이션에 함께 둘 수 없으므로 별도 소스 세트(src/reactive)의 별도 애플리케이션으로 실행
+ 실행 : gradle bootRunReactive  (포트 8031, 설정은 src/reactive/resources/application.properties)
+ */
+@SpringBootApplication
+public class ReactiveArticleApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveArticleApplication.class, args);
+    }
+}
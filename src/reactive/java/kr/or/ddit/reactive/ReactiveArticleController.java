@@ -0,0 +1,126 @@
+package kr.or.ddit.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/*
+ArticleApiController(서블릿)와 같은 경로/응답의 reactive 버전
+ GET    /api/articles       : 커서 페이지(ETag, 304). Accept: application/x-ndjson 이면 글 전체를 스트림으로
+ GET    /api/articles/{id}  : 상세(ETag "id-version"), 없으면 200 + 빈 본문
+ POST   /api/articles       : 등록, 본문에 id가 있으면 400
+ PATCH  /api/articles/{id}  : 수정(If-Match), 없으면 404, 버전이 다르면 412
+ DELETE /api/articles/{id}  : 삭제, 없으면 404
+ 핸들러는 Mono/Flux를 바로 반환하고 이벤트 루프 스레드를 막지 않음
+ */
+@Slf4j
+@RestController
+public class ReactiveArticleController {
+
+    @Autowired
+    private ReactiveArticleService reactiveArticleService;
+
+    // 글 목록. ETag는 서블릿 버전과 같은 "articles-after-limit-요약"
+    // Accept에 application/x-ndjson이 있으면 페이지 대신 id > after 인 글 전체를 한 줄에 하나씩 흘려보냄(backpressure)
+    @GetMapping("/api/articles")
+    public Mono<ResponseEntity<?>> index(@RequestParam(value = "after", required = false) Long after,
+                                         @RequestParam(value = "limit", defaultValue = "" + ReactiveArticleService.DEFAULT_PAGE_SIZE) int limit,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                         ServerWebExchange exchange){
+        if(accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE)){
+            return Mono.just(ResponseEntity.status(HttpStatus.OK)
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(this.reactiveArticleService.stream(after)));
+        }
+
+        return this.reactiveArticleService.stats().flatMap(stats -> {
+            String etag = "\"articles-" + after + "-" + limit + "-" + stats.tag() + "\"";
+            // 바뀌지 않았으면 304(본문 없음). Last-Modified는 보내지 않음(삭제를 반영하지 못함, ReactiveArticleStats 참고)
+            if(exchange.checkNotModified(etag)){
+                return Mono.empty();
+            }
+            return this.reactiveArticleService.index(after, limit)
+                    .map(page -> ResponseEntity.status(HttpStatus.OK).body(page));
+        });
+    }
+
+    @GetMapping("/api/articles/{id}")
+    public Mono<ResponseEntity<ReactiveArticle>> show(@PathVariable(value = "id") Long id){
+        log.info("show->id " + id);
+
+        return this.reactiveArticleService.show(id)
+                .map(article -> ResponseEntity.status(HttpStatus.OK)
+                        .eTag(etag(article))
+                        .lastModified(article.getLastModified().toInstant())
+                        .body(article))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.OK).build());
+    }
+
+    @PostMapping("/api/articles")
+    public Mono<ResponseEntity<ReactiveArticle>> create(@RequestBody ReactiveArticleForm form){
+        return this.reactiveArticleService.create(form)
+                .map(article -> ResponseEntity.status(HttpStatus.OK).body(article))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+    }
+
+    @PatchMapping("/api/articles/{id}")
+    public Mono<ResponseEntity<ReactiveArticle>> update(@PathVariable(value = "id") Long id,
+                                                        @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                        @RequestBody ReactiveArticleForm form){
+        // 본문에 id가 없으면 URL의 id를 사용. 둘 다 있는데 서로 다르면 잘못된 요청(400)
+        if(form.getId() == null){
+            form.setId(id);
+        }
+        if(!id.equals(form.getId())){
+            log.info("update->잘못된 요청! id : {}, form : {}", id, form);
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+        }
+        // If-Match가 있으면 본문의 version보다 우선
+        if(ifMatch != null && !"*".equals(ifMatch.trim())){
+            form.setVersion(versionOf(id, ifMatch));
+        }
+
+        return this.reactiveArticleService.update(form)
+                .map(updated -> ResponseEntity.status(HttpStatus.OK)
+                        .eTag(etag(updated))
+                        .lastModified(updated.getLastModified().toInstant())
+                        .body(updated))
+                // 대상 글이 없으면 404
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @DeleteMapping("/api/articles/{id}")
+    public Mono<ResponseEntity<ReactiveArticle>> delete(@PathVariable(value = "id") long id){
+        log.info("delete->id : {}", id);
+
+        return this.reactiveArticleService.delete(id)
+                .map(deleted -> deleted
+                        ? ResponseEntity.status(HttpStatus.OK).<ReactiveArticle>build()
+                        : ResponseEntity.status(HttpStatus.NOT_FOUND).<ReactiveArticle>build());
+    }
+
+    // 글의 강한(strong) ETag : "id-version"
+    private static String etag(ReactiveArticle article) {
+        return "\"" + article.getId() + "-" + article.getVersion() + "\"";
+    }
+
+    // If-Match 값("id-version")에서 버전을 꺼냄. 형식이 틀리거나 다른 글의 ETag면 412
+    private static Long versionOf(Long id, String ifMatch) {
+        String tag = ifMatch.trim();
+        String prefix = "\"" + id + "-";
+        if(tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1){
+            try{
+                return Long.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+            }catch(NumberFormatException e){
+                // 아래에서 412
+            }
+        }
+        throw new ArticleVersionConflictException("If-Match " + ifMatch + " does not match article " + id);
+    }
+}
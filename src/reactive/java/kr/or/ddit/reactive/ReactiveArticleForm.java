@@ -0,0 +1,25 @@
+package kr.or.ddit.reactive;
+
+import lombok.Data;
+
+// 등록/수정 요청 본문(서블릿 버전의 ArticleForm과 같은 필드)
+// version : 수정 시 클라이언트가 읽었던 글의 버전(선택). PATCH 요청의 If-Match 헤더가 있으면 그 값으로 채워짐
+@Data
+public class ReactiveArticleForm {
+
+    private Long id;
+
+    private String title;
+
+    private String content;
+
+    private Long version;
+
+    public ReactiveArticleForm() {}
+
+    public ReactiveArticleForm(Long id, String title, String content) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+    }
+}
@@ -0,0 +1,8 @@
+package kr.or.ddit.reactive;
+
+import java.util.List;
+
+// 커서 기반 글 목록 응답(서블릿 버전의 ArticlePage와 같은 JSON)
+// nextCursor : 다음 페이지 요청 시 ?after= 에 넘길 값, 더 이상 글이 없으면 null
+public record ReactiveArticlePage(List<ReactiveArticleSummary> articles, Long nextCursor, int limit) {
+}
@@ -0,0 +1,39 @@
+package kr.or.ddit.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ArticleRepository(JPA)의 reactive 버전. 모든 메서드는 바로 반환하고 결과는 Mono/Flux로 나중에 흘러옴
+ SQL은 서블릿 버전과 같음(수정은 FINAL TABLE로 UPDATE + 수정된 행 반환을 DB 왕복 1번에)
+ */
+public interface ReactiveArticleRepository extends ReactiveCrudRepository<ReactiveArticle, Long> {
+
+    // id가 after보다 큰 글 전체를 id 순으로 흘려보냄
+    // 구독자가 요청(request(n))한 만큼만 내려가므로 느린 클라이언트에게 보낼 글이 메모리에 쌓이지 않음(backpressure)
+    Flux<ReactiveArticle> findByIdGreaterThanOrderById(Long after);
+
+    // 글 수정(patch) : null인 title/content는 기존 값 유지, 대상이 없으면 empty
+    @Query("SELECT * FROM FINAL TABLE (UPDATE ARTICLE"
+            + " SET TITLE = COALESCE(:title, TITLE), CONTENT = COALESCE(:content, CONTENT),"
+            + " VERSION = VERSION + 1, LAST_MODIFIED = CURRENT_TIMESTAMP"
+            + " WHERE ID = :id)")
+    Mono<ReactiveArticle> patch(@Param("id") Long id, @Param("title") String title, @Param("content") String content);
+
+    // 버전 조건부 수정 : 저장된 VERSION이 version과 같을 때만. 대상이 없거나 버전이 다르면 empty
+    @Query("SELECT * FROM FINAL TABLE (UPDATE ARTICLE"
+            + " SET TITLE = COALESCE(:title, TITLE), CONTENT = COALESCE(:content, CONTENT),"
+            + " VERSION = VERSION + 1, LAST_MODIFIED = CURRENT_TIMESTAMP"
+            + " WHERE ID = :id AND VERSION = :version)")
+    Mono<ReactiveArticle> patchIfVersion(@Param("id") Long id, @Param("version") Long version,
+                                         @Param("title") String title, @Param("content") String content);
+
+    // 글 삭제 : 삭제된 행 수(0이면 대상 없음)
+    @Modifying
+    @Query("DELETE FROM ARTICLE WHERE ID = :id")
+    Mono<Integer> deleteOneById(@Param("id") Long id);
+}
@@ -0,0 +1,109 @@
+package kr.or.ddit.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/*
+ArticleService의 reactive 버전(index/show/create/update/delete와 목록 ETag용 요약)
+ 실패 시 null 대신 Mono.empty()를 돌려주고, 컨트롤러가 서블릿 버전과 같은 상태 코드로 바꿈
+ 목록/요약처럼 엔티티 전체가 필요 없는 조회는 DatabaseClient로 필요한 열만 읽음
+ */
+@Slf4j
+@Service
+public class ReactiveArticleService {
+
+    // 한 페이지 기본 글 수 / 최대 글 수(서블릿 버전과 같음)
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private ReactiveArticleRepository reactiveArticleRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    // 글 목록(커서 페이지), 다음 페이지가 있는지 알기 위해 하나 더(size + 1) 조회
+    public Mono<ReactiveArticlePage> index(Long after, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        long cursor = (after == null) ? 0L : after;
+
+        return this.databaseClient.sql("SELECT ID, TITLE FROM ARTICLE WHERE ID > :after ORDER BY ID LIMIT :limit")
+                .bind("after", cursor)
+                .bind("limit", size + 1)
+                .map((row, metadata) -> new ReactiveArticleSummary(row.get("ID", Long.class), row.get("TITLE", String.class)))
+                .all()
+                .collectList()
+                .map(rows -> {
+                    if(rows.size() <= size){
+                        return new ReactiveArticlePage(rows, null, size);
+                    }
+                    List<ReactiveArticleSummary> page = List.copyOf(rows.subList(0, size));
+                    return new ReactiveArticlePage(page, page.get(size - 1).id(), size);
+                });
+    }
+
+    // 글 목록 전체 스트림(id가 after보다 큰 글, 내용 포함)
+    public Flux<ReactiveArticle> stream(Long after) {
+        return this.reactiveArticleRepository.findByIdGreaterThanOrderById((after == null) ? 0L : after);
+    }
+
+    // 글 테이블 요약(집계 쿼리 한 번)
+    public Mono<ReactiveArticleStats> stats() {
+        return this.databaseClient.sql("SELECT COUNT(*), MAX(ID), CAST(SUM(VERSION) AS BIGINT) FROM ARTICLE")
+                .map((row, metadata) -> new ReactiveArticleStats(row.get(0, Long.class), row.get(1, Long.class),
+                        row.get(2, Long.class)))
+                .one();
+    }
+
+    // 글 상세보기, 없으면 empty
+    public Mono<ReactiveArticle> show(Long id) {
+        return this.reactiveArticleRepository.findById(id);
+    }
+
+    // 글 등록, id가 들어 있으면(잘못된 요청) empty
+    public Mono<ReactiveArticle> create(ReactiveArticleForm form) {
+        if(form.getId() != null){
+            return Mono.empty();
+        }
+        // version이 null이면 새 글로 보고 INSERT(version은 0으로 저장됨)
+        ReactiveArticle article = new ReactiveArticle(null, form.getTitle(), form.getContent(), null,
+                OffsetDateTime.now(ZoneOffset.UTC));
+        return this.reactiveArticleRepository.save(article);
+    }
+
+    // 글 수정(title/content 중 보내지 않은 값은 유지)
+    // id가 없거나 대상 글이 없으면 empty, form.version이 저장된 버전과 다르면 ArticleVersionConflictException(412)
+    public Mono<ReactiveArticle> update(ReactiveArticleForm form) {
+        Long id = form.getId();
+        log.info("id : {}, form : {}", id, form);
+
+        if(id == null){
+            return Mono.empty();
+        }
+        if(form.getVersion() == null){
+            return this.reactiveArticleRepository.patch(id, form.getTitle(), form.getContent());
+        }
+
+        return this.reactiveArticleRepository.patchIfVersion(id, form.getVersion(), form.getTitle(), form.getContent())
+                // 수정된 행이 없는데 글은 있음 -> 버전이 달라서 수정하지 않은 것
+                .switchIfEmpty(Mono.defer(() -> this.reactiveArticleRepository.existsById(id)
+                        .flatMap(exists -> exists
+                                ? Mono.<ReactiveArticle>error(new ArticleVersionConflictException(
+                                        "article " + id + " is not at version " + form.getVersion()))
+                                : Mono.<ReactiveArticle>empty())));
+    }
+
+    // 글 삭제 : 삭제했으면 true, 대상이 없으면 false
+    public Mono<Boolean> delete(long id) {
+        return this.reactiveArticleRepository.deleteOneById(id)
+                .map(deleted -> deleted > 0);
+    }
+}
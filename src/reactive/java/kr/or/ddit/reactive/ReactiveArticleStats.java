@@ -0,0 +1,12 @@
+package kr.or.ddit.reactive;
+
+// 글 테이블 요약(목록 ETag 용). 글이 없으면 maxId, versionSum은 null
+// Last-Modified(MAX(LAST_MODIFIED))는 두지 않음 : 삭제해도 값이 바뀌지 않아서 If-Modified-Since만 보내는 클라이언트에
+//  삭제 전 목록이 304로 나감. 목록의 조건부 요청은 ETag(If-None-Match)로만 판단
+public record ReactiveArticleStats(Long count, Long maxId, Long versionSum) {
+
+    // ETag 값에 넣을 문자열(따옴표 제외)
+    public String tag() {
+        return count + "-" + maxId + "-" + versionSum;
+    }
+}
@@ -0,0 +1,5 @@
+package kr.or.ddit.reactive;
+
+// 목록 한 줄(id, 제목)
+public record ReactiveArticleSummary(Long id, String title) {
+}
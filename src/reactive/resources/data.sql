@@ -0,0 +1,5 @@
+INSERT INTO ARTICLE(ID, TITLE, CONTENT, VERSION, LAST_MODIFIED) VALUES(1, '개똥이의 여행','즐거운 여행', 0, CURRENT_TIMESTAMP);
+INSERT INTO ARTICLE(ID, TITLE, CONTENT, VERSION, LAST_MODIFIED) VALUES(2, '개똥이의 여행2','즐거운 여행2', 0, CURRENT_TIMESTAMP);
+INSERT INTO ARTICLE(ID, TITLE, CONTENT, VERSION, LAST_MODIFIED) VALUES(3, '개똥이의 여행3','즐거운 여행3', 0, CURRENT_TIMESTAMP);
+-- id를 직접 넣었으므로 다음 id(4)부터 발급하도록 맞춤
+ALTER TABLE ARTICLE ALTER COLUMN ID RESTART WITH 4;
@@ -0,0 +1,9 @@
+-- reactive 버전 글 테이블 : 서블릿 버전(Article 엔티티)과 같은 열
+-- R2DBC에는 Hibernate 시퀀스 할당이 없으므로 id는 AUTO_INCREMENT(INSERT 후 생성된 키를 돌려받음)
+CREATE TABLE IF NOT EXISTS ARTICLE (
+    ID BIGINT AUTO_INCREMENT PRIMARY KEY,
+    TITLE VARCHAR(255),
+    CONTENT VARCHAR(255),
+    VERSION BIGINT NOT NULL,
+    LAST_MODIFIED TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,46 @@
+package kr.or.ddit.change;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 스프링 없이 링 버퍼만 따로 테스트
+class ArticleChangeLogTest {
+
+    @Test
+    void since_마지막_순번_다음부터_반환() {
+        // 1. 예상 데이터
+        ArticleChangeLog log = new ArticleChangeLog(4, 100);
+        log.append(new ArticleChangedEvent(ArticleChangedEvent.Type.CREATED, 1L, 0L));
+        log.append(new ArticleChangedEvent(ArticleChangedEvent.Type.UPDATED, 1L, 1L));
+        log.append(new ArticleChangedEvent(ArticleChangedEvent.Type.DELETED, 1L, null));
+
+        // 2. 실제 데이터
+        List<ArticleChange> changes = log.since(101);
+
+        // 3. 비교 및 검증
+        assertEquals(2, changes.size());
+        assertEquals(102, changes.get(0).seq());
+        assertEquals(ArticleChangedEvent.Type.UPDATED, changes.get(0).type());
+        assertEquals(103, changes.get(1).seq());
+        assertTrue(log.since(103).isEmpty());
+    }
+
+    @Test
+    void since_덮어쓴_구간이나_모르는_순번이면_null() {
+        // 1. 예상 데이터
+        // 크기 2인 버퍼에 3건 -> 첫 번째(101)는 덮어써짐
+        ArticleChangeLog log = new ArticleChangeLog(2, 100);
+        for(long id = 1; id <= 3; id++){
+            log.append(new ArticleChangedEvent(ArticleChangedEvent.Type.CREATED, id, 0L));
+        }
+
+        // 2. 실제 데이터 / 3. 비교 및 검증
+        assertNull(log.since(100));
+        assertEquals(1, log.since(102).size());
+        // 재기동 전 서버의 더 큰 순번
+        assertNull(log.since(200));
+    }
+}
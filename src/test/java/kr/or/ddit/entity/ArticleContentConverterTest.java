@@ -0,0 +1,59 @@
+package kr.or.ddit.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 스프링 없이 글 내용 압축 저장 형식만 따로 테스트
+class ArticleContentConverterTest {
+
+    @Test
+    void 긴_글은_압축_짧은_글은_그대로() throws IOException {
+        // 1. 예상 데이터
+        String shortContent = "즐거운 여행";
+        String longContent = "개똥이의 즐거운 여행. 오늘 점심 메뉴는 무엇일까요? ".repeat(100);
+
+        // 2. 실제 데이터
+        byte[] shortData = ArticleContentConverter.encode(shortContent);
+        byte[] longData = ArticleContentConverter.encode(longContent);
+
+        // 3. 비교 및 검증
+        assertEquals(ArticleContentConverter.RAW, shortData[0]);
+        assertEquals(ArticleContentConverter.DEFLATE, longData[0]);
+        assertTrue(longData.length < longContent.getBytes(StandardCharsets.UTF_8).length / 4);
+        assertEquals(shortContent, ArticleContentConverter.decode(shortData));
+        assertEquals(longContent, ArticleContentConverter.decode(longData));
+        assertEquals(longContent, readStream(longData));
+        assertEquals(shortContent, readStream(shortData));
+        assertNull(ArticleContentConverter.encode(null));
+        assertNull(ArticleContentConverter.decode(null));
+    }
+
+    @Test
+    void 머리_바이트_없는_예전_값은_UTF8() throws IOException {
+        // 1. 예상 데이터
+        // CONTENT가 문자열 열이던 때 저장된 값을 BLOB으로 바꾼 경우
+        String content = "점심 메뉴 추천";
+        byte[] legacy = content.getBytes(StandardCharsets.UTF_8);
+
+        // 2. 실제 데이터
+        String decoded = ArticleContentConverter.decode(legacy);
+        String streamed = readStream(legacy);
+
+        // 3. 비교 및 검증
+        assertEquals(content, decoded);
+        assertEquals(content, streamed);
+        assertEquals("", ArticleContentConverter.decode(new byte[0]));
+    }
+
+    private static String readStream(byte[] data) throws IOException {
+        try(InputStream in = ArticleContentConverter.decodingStream(new ByteArrayInputStream(data))){
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
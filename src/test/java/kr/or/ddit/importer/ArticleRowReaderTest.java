@@ -0,0 +1,109 @@
+package kr.or.ddit.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 스프링 없이 CSV/NDJSON 행 읽기만 따로 테스트
+class ArticleRowReaderTest {
+
+    @Test
+    void csv_헤더_따옴표_잘못된_행() throws IOException {
+        // 1. 예상 데이터
+        // 헤더의 열 순서가 content, title / 따옴표 안의 쉼표, 줄바꿈, "" / 열이 모자란 행 / 빈 줄
+        String csv = "\uFEFFid,content,title\r\n"
+                + "7,\"내용, 쉼표\",제목1\r\n"
+                + "\n"
+                + "8,\"두 줄\n내용\",\"\"\"인용\"\" 제목\"\n"
+                + "9,열 부족\n"
+                + "10,내용4,제목4";
+
+        // 2. 실제 데이터
+        List<ArticleRowReader.Row> rows = readAll(csv, ArticleImportFormat.CSV);
+
+        // 3. 비교 및 검증
+        assertEquals(4, rows.size());
+        assertEquals(1, rows.get(0).number());
+        assertEquals("제목1", rows.get(0).form().getTitle());
+        assertEquals("내용, 쉼표", rows.get(0).form().getContent());
+        // id 열은 가져오지 않음(새 글로 등록)
+        assertNull(rows.get(0).form().getId());
+        assertEquals("\"인용\" 제목", rows.get(1).form().getTitle());
+        assertEquals("두 줄\n내용", rows.get(1).form().getContent());
+        assertEquals(3, rows.get(2).number());
+        assertNull(rows.get(2).form());
+        assertEquals("제목4", rows.get(3).form().getTitle());
+    }
+
+    @Test
+    void csv_닫히지_않은_따옴표는_그_줄만_버림() throws IOException {
+        // 1. 예상 데이터
+        // 2행 : 닫히지 않은 따옴표 뒤로 MAX_FIELD_LENGTH보다 긴 값 / 4행 : 따옴표가 닫히지 않은 채 파일이 끝남
+        // (뒤에 다른 따옴표가 있으면 그 따옴표가 닫는 따옴표가 되므로 4행 뒤로는 따옴표 없음)
+        String csv = "title,content\n"
+                + "제목1,내용1\n"
+                + "제목2,\"" + "가".repeat(ArticleRowReader.MAX_FIELD_LENGTH + 10) + "\n"
+                + "제목3,내용3\r\n"
+                + "제목4,\"닫히지 않은 내용\n"
+                + "제목5,내용5\n"
+                + "제목6,내용6";
+
+        // 2. 실제 데이터
+        List<ArticleRowReader.Row> rows = readAll(csv, ArticleImportFormat.CSV);
+
+        // 3. 비교 및 검증
+        assertEquals(6, rows.size());
+        assertEquals("내용1", rows.get(0).form().getContent());
+        assertEquals(2, rows.get(1).number());
+        assertNull(rows.get(1).form());
+        assertEquals("제목3", rows.get(2).form().getTitle());
+        assertEquals("내용3", rows.get(2).form().getContent());
+        assertEquals(4, rows.get(3).number());
+        assertNull(rows.get(3).form());
+        assertEquals("내용5", rows.get(4).form().getContent());
+        assertEquals(6, rows.get(5).number());
+        assertEquals("제목6", rows.get(5).form().getTitle());
+    }
+
+    @Test
+    void ndjson_잘못된_줄은_null_form() throws IOException {
+        // 1. 예상 데이터
+        // export 결과처럼 id, version, lastModified가 있어도 제목/내용만 가져옴
+        String ndjson = "{\"id\":1,\"title\":\"가\",\"content\":\"나\",\"version\":3,\"lastModified\":\"2024-01-01T00:00:00Z\"}\n"
+                + "{잘못된 JSON\n"
+                + "\n"
+                + "{\"title\":\"다\",\"content\":\"라\"}\n";
+
+        // 2. 실제 데이터
+        List<ArticleRowReader.Row> rows = readAll(ndjson, ArticleImportFormat.NDJSON);
+
+        // 3. 비교 및 검증
+        assertEquals(3, rows.size());
+        assertEquals("가", rows.get(0).form().getTitle());
+        assertNull(rows.get(0).form().getId());
+        assertNull(rows.get(0).form().getVersion());
+        assertNull(rows.get(1).form());
+        assertEquals(3, rows.get(2).number());
+        assertEquals("라", rows.get(2).form().getContent());
+    }
+
+    private static List<ArticleRowReader.Row> readAll(String text, ArticleImportFormat format) throws IOException {
+        List<ArticleRowReader.Row> rows = new ArrayList<>();
+        try(ArticleRowReader reader = new ArticleRowReader(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), format,
+                new ObjectMapper())){
+            ArticleRowReader.Row row;
+            while((row = reader.next()) != null){
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,77 @@
+package kr.or.ddit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 스프링 없이 토큰 버킷/경로 구분만 따로 테스트(시각은 직접 넘김)
+class ApiRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_burst까지_허용하고_넘으면_대기시간_반환() {
+        // 1. 예상 데이터
+        // 초당 10개, 최대 5개 -> 토큰 간격 100ms
+        ApiRateLimiter limiter = new ApiRateLimiter(10, 5, 100, Duration.ofMinutes(1));
+        long now = 1_000 * SECOND;
+
+        // 2. 실제 데이터 / 3. 비교 및 검증
+        for(int i = 0; i < 5; i++){
+            assertEquals(0, limiter.tryAcquire("a", 1, now));
+        }
+        assertEquals(SECOND / 10, limiter.tryAcquire("a", 1, now));
+        // 다른 클라이언트는 따로 셈
+        assertEquals(0, limiter.tryAcquire("b", 5, now));
+    }
+
+    @Test
+    void tryAcquire_시간이_지나면_다시_허용() {
+        // 1. 예상 데이터
+        ApiRateLimiter limiter = new ApiRateLimiter(10, 5, 100, Duration.ofMinutes(1));
+        long now = 1_000 * SECOND;
+        assertEquals(0, limiter.tryAcquire("a", 5, now));
+
+        // 2. 실제 데이터 / 3. 비교 및 검증
+        // 비용 2 -> 200ms 뒤부터
+        assertEquals(2 * SECOND / 10, limiter.tryAcquire("a", 2, now));
+        assertEquals(0, limiter.tryAcquire("a", 2, now + 2 * SECOND / 10));
+        // 오래 쉬어도 burst(5)보다 많이 모이지 않음
+        long later = now + 60 * SECOND;
+        assertEquals(0, limiter.tryAcquire("a", 5, later));
+        assertTrue(limiter.tryAcquire("a", 1, later) > 0);
+    }
+
+    @Test
+    void of_경로별_구분() {
+        // 1. 예상 데이터 / 2. 실제 데이터 / 3. 비교 및 검증
+        assertEquals(ApiRoute.INDEX, ApiRoute.of("GET", "/api/articles"));
+        assertEquals(ApiRoute.WRITE, ApiRoute.of("POST", "/api/articles"));
+        assertEquals(ApiRoute.SHOW, ApiRoute.of("GET", "/api/articles/3"));
+        assertEquals(ApiRoute.WRITE, ApiRoute.of("PATCH", "/api/articles/3"));
+        assertEquals(ApiRoute.SEARCH, ApiRoute.of("GET", "/api/articles/search"));
+        assertEquals(ApiRoute.EXPORT, ApiRoute.of("GET", "/api/articles/export"));
+        assertEquals(ApiRoute.BATCH, ApiRoute.of("POST", "/api/articles/batch"));
+        assertEquals(ApiRoute.IMPORT, ApiRoute.of("POST", "/api/articles/import"));
+        assertEquals(ApiRoute.OTHER, ApiRoute.of("GET", "/api/articlesx"));
+    }
+
+    @Test
+    void clientId_믿는_프록시에서_온_요청만_헤더_사용() {
+        // 1. 예상 데이터
+        Set<String> trusted = Set.of("10.0.0.1");
+
+        // 2. 실제 데이터 / 3. 비교 및 검증
+        // 프록시가 아니면 헤더를 바꿔 보내도 접속 IP로 셈
+        assertEquals("203.0.113.7", ApiRateLimitFilter.clientId("203.0.113.7", "random-1", "1.2.3.4", trusted));
+        assertEquals("203.0.113.7", ApiRateLimitFilter.clientId("203.0.113.7", null, null, Set.of()));
+        // 프록시면 X-Client-Id, 없으면 X-Forwarded-For의 가장 오른쪽 믿지 않는 주소(왼쪽은 클라이언트가 넣은 값)
+        assertEquals("id:app-1", ApiRateLimitFilter.clientId("10.0.0.1", "app-1", "1.2.3.4", trusted));
+        assertEquals("198.51.100.2", ApiRateLimitFilter.clientId("10.0.0.1", null, "1.2.3.4, 198.51.100.2, 10.0.0.1", trusted));
+        assertEquals("10.0.0.1", ApiRateLimitFilter.clientId("10.0.0.1", " ", null, trusted));
+    }
+}
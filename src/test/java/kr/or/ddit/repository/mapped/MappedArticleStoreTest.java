@@ -0,0 +1,90 @@
+package kr.or.ddit.repository.mapped;
+
+import kr.or.ddit.dto.ArticleSummary;
+import kr.or.ddit.entity.Article;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 스프링 없이 세그먼트 저장소만 따로 테스트(임시 디렉터리)
+class MappedArticleStoreTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void 저장_수정_삭제가_재기동_후에도_유지() throws IOException {
+        // 1. 예상 데이터
+        try(MappedArticleStore store = MappedArticleStore.open(this.directory, SEGMENT_SIZE, false)){
+            Article first = store.insert(null, "가가가가", "1111");
+            Article second = store.insert(null, "나나나나", "2222");
+            store.insert(null, "다다다다", null);
+            store.update(first.getId(), 0L, null, "수정됨", true);
+            store.delete(second.getId());
+        }
+
+        // 2. 실제 데이터
+        try(MappedArticleStore store = MappedArticleStore.open(this.directory, SEGMENT_SIZE, false)){
+            Article first = store.get(1L);
+            List<ArticleSummary> summaries = store.summariesAfter(0L, 10);
+
+            // 3. 비교 및 검증
+            assertEquals("가가가가", first.getTitle());
+            assertEquals("수정됨", first.getContent());
+            assertEquals(1L, first.getVersion());
+            assertNull(store.get(2L));
+            assertEquals(List.of(new ArticleSummary(1L, "가가가가"), new ArticleSummary(3L, "다다다다")), summaries);
+            assertNull(store.get(3L).getContent());
+            // 버전이 다르면 수정하지 않음
+            assertNull(store.update(1L, 0L, "x", null, true));
+            // 삭제된 id는 다시 발급하지 않음
+            assertEquals(4L, store.insert(null, "라라라라", "4444").getId());
+        }
+    }
+
+    @Test
+    void compact_쓸모없는_레코드를_지우고_데이터는_그대로() throws IOException {
+        // 1. 예상 데이터
+        // 작은 세그먼트에 수정을 반복해서 여러 파일에 걸쳐 쓸모없는 레코드를 만듦
+        try(MappedArticleStore store = MappedArticleStore.open(this.directory, SEGMENT_SIZE, false)){
+            for(int i = 1; i <= 20; i++){
+                store.insert(null, "제목" + i, "내용" + i);
+            }
+            for(int round = 0; round < 10; round++){
+                for(long id = 1; id <= 20; id++){
+                    store.update(id, null, null, "내용" + id + "-" + round, true);
+                }
+            }
+            for(long id = 11; id <= 20; id++){
+                store.delete(id);
+            }
+            double before = store.garbageRatio();
+
+            // 2. 실제 데이터
+            long reclaimed = store.compact();
+
+            // 3. 비교 및 검증
+            assertTrue(before > 0.8);
+            assertTrue(reclaimed > 0);
+            assertEquals(0.0, store.garbageRatio(), 0.0001);
+            assertEquals(10, store.count());
+            assertEquals("내용7-9", store.get(7L).getContent());
+        }
+
+        // 재기동 후에도 압축 결과만으로 같은 데이터
+        try(MappedArticleStore store = MappedArticleStore.open(this.directory, SEGMENT_SIZE, false)){
+            assertEquals(10, store.count());
+            assertEquals(10L, store.maxId());
+            assertEquals("내용7-9", store.get(7L).getContent());
+            assertEquals(10L, store.get(7L).getVersion());
+            assertNull(store.get(15L));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package kr.or.ddit.search;
+
+import kr.or.ddit.change.ArticleChangedEvent;
+import kr.or.ddit.entity.Article;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 스프링 없이 색인만 따로 테스트
+class ArticleSearchIndexTest {
+
+    @Test
+    void tokenize_한글은_2글자씩_영문은_단어_단위() {
+        // 1. 예상 데이터
+        List<String> expected = new ArrayList<String>(Arrays.asList("개똥", "똥이", "이의", "여행", "spring", "3"));
+
+        // 2. 실제 데이터
+        List<String> tokens = ArticleTokenizer.tokenize("개똥이의 여행, Spring 3");
+
+        // 3. 비교 및 검증
+        assertEquals(expected, tokens);
+    }
+
+    @Test
+    void search_제목에_있는_글이_먼저() {
+        // 1. 예상 데이터
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.add(new Article(1L, "개똥이의 여행", "즐거운 여행"));
+        index.add(new Article(2L, "점심 메뉴", "개똥이와 함께 먹은 점심"));
+        index.add(new Article(3L, "저녁 메뉴", "맛있는 저녁"));
+
+        // 2. 실제 데이터
+        ArticleSearchIndex.Result result = index.search("개똥이", 0, 10);
+
+        // 3. 비교 및 검증
+        assertEquals(2, result.total());
+        assertEquals(1L, result.hits().get(0).articleId());
+        assertEquals(2L, result.hits().get(1).articleId());
+    }
+
+    @Test
+    void search_수정_삭제가_반영됨() {
+        // 1. 예상 데이터
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.add(new Article(1L, "개똥이의 여행", "즐거운 여행"));
+        index.add(new Article(2L, "개똥이의 여행2", "즐거운 여행2"));
+
+        // 2. 실제 데이터
+        // 1번 글은 제목/내용을 바꾸고, 2번 글은 삭제
+        index.add(new Article(1L, "점심 메뉴", "맛있는 점심"));
+        index.remove(2L);
+
+        // 3. 비교 및 검증
+        assertEquals(0, index.search("여행", 0, 10).total());
+        assertEquals(1L, index.search("점심", 0, 10).hits().get(0).articleId());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void search_아주_먼_페이지도_예외_없이_빈_결과() {
+        // 1. 예상 데이터
+        // offset + limit이 int 범위를 넘어도 음수/거대한 힙을 만들지 않음
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.add(new Article(1L, "개똥이의 여행", "즐거운 여행"));
+
+        // 2. 실제 데이터
+        ArticleSearchIndex.Result result = index.search("여행", Integer.MAX_VALUE - 10, 100);
+
+        // 3. 비교 및 검증
+        assertEquals(1, result.total());
+        assertTrue(result.hits().isEmpty());
+    }
+
+    @Test
+    void onChange_늦게_도착한_예전_버전은_반영하지_않음() {
+        // 1. 예상 데이터
+        // 버전 2가 먼저 반영된 뒤 버전 1의 수정 이벤트가 늦게 도착
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        Article v2 = new Article(1L, "점심 메뉴", "맛있는 점심", 2L, null);
+        Article v1 = new Article(1L, "개똥이의 여행", "즐거운 여행", 1L, null);
+
+        // 2. 실제 데이터
+        index.onChange(new ArticleChangedEvent(ArticleChangedEvent.Type.UPDATED, 1L, 2L, v2));
+        index.onChange(new ArticleChangedEvent(ArticleChangedEvent.Type.UPDATED, 1L, 1L, v1));
+
+        // 3. 비교 및 검증
+        assertEquals(1, index.search("점심", 0, 10).total());
+        assertEquals(0, index.search("여행", 0, 10).total());
+
+        index.onChange(new ArticleChangedEvent(ArticleChangedEvent.Type.DELETED, 1L, null));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void onChange_삭제_뒤에_늦게_도착한_수정은_반영하지_않음() {
+        // 1. 예상 데이터
+        // 수정 커밋 -> 삭제 커밋 순서였지만 삭제 이벤트가 먼저 도착
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.onChange(new ArticleChangedEvent(ArticleChangedEvent.Type.CREATED, 1L, 0L,
+                new Article(1L, "개똥이의 여행", "즐거운 여행", 0L, null)));
+        index.onChange(new ArticleChangedEvent(ArticleChangedEvent.Type.CREATED, 2L, 0L,
+                new Article(2L, "개똥이의 여행2", "즐거운 여행2", 0L, null)));
+
+        // 2. 실제 데이터
+        index.onChange(new ArticleChangedEvent(ArticleChangedEvent.Type.DELETED, 1L, null));
+        index.onChange(new ArticleChangedEvent(ArticleChangedEvent.Type.UPDATED, 1L, 1L,
+                new Article(1L, "개똥이의 여행", "즐거운 여행 수정", 1L, null)));
+
+        // 3. 비교 및 검증
+        ArticleSearchIndex.Result result = index.search("여행", 0, 10);
+        assertEquals(1, result.total());
+        assertEquals(2L, result.hits().get(0).articleId());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void add_여러_번_수정해도_정리_후_검색_결과는_같음() {
+        // 1. 예상 데이터
+        // 같은 글을 정리(compact) 기준보다 많이 수정 -> 문서 번호를 다시 매겨도 검색 결과가 맞아야 함
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.add(new Article(1L, "점심 메뉴", "맛있는 점심"));
+        index.add(new Article(2L, "저녁 메뉴", "맛있는 저녁"));
+
+        // 2. 실제 데이터
+        for(int i = 0; i < 5000; i++){
+            index.add(new Article(3L, "개똥이의 여행" + i, "즐거운 여행"));
+        }
+        index.add(new Article(4L, "개똥이의 점심", "즐거운 점심"));
+
+        // 3. 비교 및 검증
+        assertEquals(4, index.size());
+        assertEquals(1, index.search("여행", 0, 10).total());
+        assertEquals(3L, index.search("여행", 0, 10).hits().get(0).articleId());
+        assertEquals(2, index.search("점심", 0, 10).total());
+        assertEquals(2, index.search("메뉴", 0, 10).total());
+    }
+}
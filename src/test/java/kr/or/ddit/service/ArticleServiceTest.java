@@ -2,8 +2,13 @@ package kr.or.ddit.service;
 
 // Test 패키지 임포트
 import jakarta.transaction.Transactional;
+import kr.or.ddit.dto.ArticleBatchResult;
 import kr.or.ddit.dto.ArticleForm;
+import kr.or.ddit.dto.ArticlePage;
+import kr.or.ddit.dto.ArticleSearchResult;
+import kr.or.ddit.dto.ArticleSummary;
 import kr.or.ddit.entity.Article;
+import kr.or.ddit.exception.ArticleVersionConflictException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -43,11 +48,32 @@ class ArticleServiceTest {
         List<Article> articles = this.articleService.index();
 
         // 3. 비교 및 검증
+        // toString에는 내용이 없으므로 내용은 글마다 따로 비교(트랜잭션 밖이라 show로 읽음)
         assertEquals(expected.toString(), articles.toString());
+        for(Article article : expected){
+            assertEquals(article.getContent(), this.articleService.show(article.getId()).getContent());
+        }
 
         // 여기까지 테스트 코드
     }
 
+    @Test
+    void index_커서_페이지_첫_페이지() {
+        // 1. 예상 데이터
+        // 목록은 id, 제목만 담음
+        ArticleSummary a = new ArticleSummary(1L,"개똥이의 여행");
+        ArticleSummary b = new ArticleSummary(2L,"개똥이의 여행2");
+        List<ArticleSummary> expected = new ArrayList<ArticleSummary>(Arrays.asList(a,b));
+
+        // 2. 실제 데이터(첫 페이지 2건)
+        ArticlePage page = this.articleService.index(null, 2);
+
+        // 3. 비교 및 검증
+        // 다음 페이지가 있으므로 nextCursor는 마지막 글의 id
+        assertEquals(expected, page.getArticles());
+        assertEquals(2L, page.getNextCursor());
+    }
+
     // 성공 -> 성공_존재하는_id_입력
     @Test
     void show_성공_존재하는_id_입력() { // 원래 메소드명은 한글(x)
@@ -62,6 +88,7 @@ class ArticleServiceTest {
 
         // 3. 비교 및 검증
         assertEquals(expected.toString(), article1.toString());
+        assertEquals(expected.getContent(), article1.getContent());
 
     }
 
@@ -122,6 +149,7 @@ class ArticleServiceTest {
         // 3. 비교 및 검증
         // 예상 데이터와 실제 데이터를 비교해보자
         assertEquals(expected.toString(), article.toString());
+        assertEquals(expected.getContent(), article.getContent());
     }
 
     @Test
@@ -148,4 +176,137 @@ class ArticleServiceTest {
         assertEquals(expected, article);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional
+    void createAll_id가_없는_항목만_등록() {
+        // 1. 예상 데이터
+        // 두 번째 항목은 id가 있으므로 등록되지 않아야 함
+        List<ArticleForm> forms = new ArrayList<ArticleForm>(Arrays.asList(
+                new ArticleForm(null, "개똥이의 여행6", "즐거운 여행6"),
+                new ArticleForm(1L, "개똥이의 여행7", "즐거운 여행7")));
+
+        // 2. 실제 데이터
+        List<ArticleBatchResult> results = this.articleService.createAll(forms);
+
+        // 3. 비교 및 검증
+        assertEquals(ArticleBatchResult.Status.CREATED, results.get(0).getStatus());
+        assertNotNull(this.articleService.show(results.get(0).getId()));
+        assertEquals(ArticleBatchResult.Status.BAD_REQUEST, results.get(1).getStatus());
+    }
+
+    @Test
+    @Transactional
+    void updateAll_버전이_다른_항목은_CONFLICT() {
+        // 1. 예상 데이터
+        // 처음 저장된 글의 버전은 0. 1번은 맞는 버전, 2번은 예전 버전(다른 요청이 먼저 고친 경우), 3번은 버전 없음
+        ArticleForm current = new ArticleForm(1L, "개똥이의 여행11", null);
+        current.setVersion(0L);
+        ArticleForm stale = new ArticleForm(2L, "개똥이의 여행22", null);
+        stale.setVersion(5L);
+        ArticleForm unversioned = new ArticleForm(3L, "개똥이의 여행33", null);
+
+        // 2. 실제 데이터
+        List<ArticleBatchResult> results = this.articleService.updateAll(
+                new ArrayList<ArticleForm>(Arrays.asList(current, stale, unversioned)));
+
+        // 3. 비교 및 검증
+        assertEquals(ArticleBatchResult.Status.UPDATED, results.get(0).getStatus());
+        assertEquals(ArticleBatchResult.Status.CONFLICT, results.get(1).getStatus());
+        assertEquals(ArticleBatchResult.Status.UPDATED, results.get(2).getStatus());
+        assertEquals(2L, results.get(1).getId());
+    }
+
+    @Test
+    @Transactional
+    void update_성공_title만_있는_dto_입력() {
+        // 1. 예상 데이터
+        // content를 보내지 않았으므로 기존 내용이 유지되어야 함
+        Long id = 1L;
+        ArticleForm dto = new ArticleForm(id, "개똥이의 여행11", null);
+        Article expected = new Article(id, "개똥이의 여행11", "즐거운 여행");
+
+        // 2. 실제 데이터
+        Article article = this.articleService.update(dto);
+
+        // 3. 비교 및 검증
+        assertEquals(expected.toString(), article.toString());
+        assertEquals(expected.getContent(), article.getContent());
+    }
+
+    @Test
+    @Transactional
+    void update_성공_버전이_같은_dto_입력() {
+        // 1. 예상 데이터
+        // 처음 저장된 글의 버전은 0, 수정되면 1
+        ArticleForm dto = new ArticleForm(2L, "개똥이의 여행22", null);
+        dto.setVersion(0L);
+        Article expected = new Article(2L, "개똥이의 여행22", "즐거운 여행2");
+
+        // 2. 실제 데이터
+        Article article = this.articleService.update(dto);
+
+        // 3. 비교 및 검증
+        assertEquals(expected.toString(), article.toString());
+        assertEquals(expected.getContent(), article.getContent());
+        assertEquals(1L, article.getVersion());
+    }
+
+    @Test
+    @Transactional
+    void update_실패_버전이_다른_dto_입력() {
+        // 1. 예상 데이터
+        // 다른 요청이 먼저 고쳐서 버전이 올라간 글(버전 0 -> 1)을 예전 버전(0)으로 고치려 함
+        ArticleForm first = new ArticleForm(3L, "개똥이의 여행33", null);
+        first.setVersion(0L);
+        this.articleService.update(first);
+
+        ArticleForm stale = new ArticleForm(3L, null, "즐거운 여행33");
+        stale.setVersion(0L);
+
+        // 2. 실제 데이터 / 3. 비교 및 검증
+        // 덮어쓰지 않고 ArticleVersionConflictException(412)
+        assertThrows(ArticleVersionConflictException.class, () -> this.articleService.update(stale));
+    }
+
+    @Test
+    @Transactional
+    void update_실패_존재하지_않는_id_입력() {
+        // 1. 예상 데이터
+        ArticleForm dto = new ArticleForm(-1L, "개똥이의 여행", "즐거운 여행");
+        Article expected = null;
+
+        // 2. 실제 데이터
+        Article article = this.articleService.update(dto);
+
+        // 3. 비교 및 검증
+        assertEquals(expected, article);
+    }
+
+    @Test
+    @Transactional
+    void delete_실패_존재하지_않는_id_입력() {
+        // 2. 실제 데이터
+        boolean deleted = this.articleService.delete(-1L);
+
+        // 3. 비교 및 검증
+        assertFalse(deleted);
+    }
+
+    @Test
+    void search_검색_범위를_넘는_페이지는_null() {
+        // 1. 예상 데이터
+        // (page + 1) * size가 MAX_SEARCH_WINDOW를 넘으면 잘못된 요청(null -> 400)
+        int farPage = ArticleService.MAX_SEARCH_WINDOW / ArticleService.MAX_PAGE_SIZE;
+
+        // 2. 실제 데이터
+        ArticleSearchResult far = this.articleService.search("여행", farPage, ArticleService.MAX_PAGE_SIZE);
+        ArticleSearchResult huge = this.articleService.search("여행", 21474837, ArticleService.MAX_PAGE_SIZE);
+        ArticleSearchResult first = this.articleService.search("여행", 0, ArticleService.DEFAULT_PAGE_SIZE);
+
+        // 3. 비교 및 검증
+        assertNull(far);
+        assertNull(huge);
+        assertNotNull(first);
+    }
+}
@@ -0,0 +1,64 @@
+package kr.or.ddit.view;
+
+import com.samskivert.mustache.Mustache;
+import kr.or.ddit.dto.ArticleSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.FileCopyUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PrecompiledMustacheTemplatesTest {
+
+    @Autowired
+    PrecompiledMustacheTemplates templates;
+
+    @Autowired
+    Mustache.Compiler compiler;
+
+    @Autowired
+    ResourceLoader resourceLoader;
+
+    @Test
+    void render_통째로_컴파일한_결과와_같음() throws Exception {
+        // 1. 예상 데이터
+        // 목록 화면 모델(ArticleController.index와 같은 이름)
+        Map<String, Object> model = new HashMap<>();
+        model.put("articleList", new ArrayList<ArticleSummary>(Arrays.asList(
+                new ArticleSummary(1L, "개똥이의 여행"),
+                new ArticleSummary(2L, "<b>개똥이의 여행2</b>"))));
+        model.put("pageNumber", 1);
+        model.put("hasNext", true);
+        model.put("nextPage", 1);
+
+        String source;
+        try(Reader reader = new InputStreamReader(
+                this.resourceLoader.getResource("classpath:/templates/articles/index.mustache").getInputStream(),
+                StandardCharsets.UTF_8)){
+            source = FileCopyUtils.copyToString(reader);
+        }
+        String expected = this.compiler.compile(source).execute(model);
+
+        // 2. 실제 데이터
+        PrecompiledMustacheTemplate template = this.templates.get("articles/index");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        template.render(model, out);
+
+        // 3. 비교 및 검증
+        // 레이아웃(header/aside/footer)은 바이트로 캐시되어 있어야 함
+        assertTrue(template.staticBytes() > 0);
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+    }
+}